@@ -0,0 +1,125 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.BinaryJobFormat;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic job shapes used by the benchmarks. Tasks are returned shuffled so that the input order
+ * never happens to be a valid topological order.
+ */
+public enum DagShape {
+    /** task-i requires task-(i-1). */
+    CHAIN {
+        @Override
+        List<String> requires(int i, int size, Random random) {
+            return i == 0 ? null : List.of(name(i - 1));
+        }
+    },
+    /** A single root required by every other task. */
+    FAN_OUT {
+        @Override
+        List<String> requires(int i, int size, Random random) {
+            return i == 0 ? null : List.of(name(0));
+        }
+    },
+    /** sqrt(size) layers, every task requiring one to three random tasks of the previous layer. */
+    LAYERED {
+        @Override
+        List<String> requires(int i, int size, Random random) {
+            final int width = Math.max(1, (int) Math.sqrt(size));
+            final int layerStart = i / width * width;
+            if (layerStart == 0) {
+                return null;
+            }
+            final var requires = new ArrayList<String>(3);
+            for (int r = 1 + random.nextInt(3); r > 0; r--) {
+                requires.add(name(layerStart - width + random.nextInt(width)));
+            }
+            return requires;
+        }
+    },
+    /** Every task requiring zero to three random tasks before it, as a job grown without any structure. */
+    RANDOM {
+        @Override
+        List<String> requires(int i, int size, Random random) {
+            final var requires = new ArrayList<String>(3);
+            for (int r = Math.min(i, random.nextInt(4)); r > 0; r--) {
+                requires.add(name(random.nextInt(i)));
+            }
+            return requires;
+        }
+    },
+    /** Chained diamonds: top, left and right requiring top, bottom requiring left and right. */
+    DIAMOND {
+        @Override
+        List<String> requires(int i, int size, Random random) {
+            return switch (i % 4) {
+                case 0 -> i == 0 ? null : List.of(name(i - 1));
+                case 1, 2 -> List.of(name(i - i % 4));
+                default -> List.of(name(i - 2), name(i - 1));
+            };
+        }
+    };
+
+    abstract List<String> requires(int i, int size, Random random);
+
+    public List<Task> tasks(int size) {
+        final var random = new Random(size);
+        final var tasks = new ArrayList<Task>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task(name(i), "echo " + name(i), requires(i, size, random)));
+        }
+        Collections.shuffle(tasks, random);
+        return tasks;
+    }
+
+    /**
+     * @return the request body of a job with these tasks; {@code requires} is write-only on {@link Task}
+     * and has to be written by hand.
+     */
+    public byte[] jobJson(int size) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("tasks");
+            for (Task task : tasks(size)) {
+                generator.writeStartObject();
+                generator.writeStringField("name", task.name());
+                generator.writeStringField("command", task.command());
+                if (task.requires() != null) {
+                    generator.writeArrayFieldStart("requires");
+                    for (String required : task.requires()) {
+                        generator.writeString(required);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the same job as {@link #jobJson(int)} in the binary format.
+     */
+    public byte[] jobBinary(int size) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        BinaryJobFormat.writeJob(tasks(size), out);
+        return out.toByteArray();
+    }
+
+    static String name(int i) {
+        return "task-" + i;
+    }
+}
@@ -0,0 +1,54 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JobProcessorServiceBenchmark {
+    @Param({"CHAIN", "LAYERED"})
+    public DagShape shape;
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private final TasksSorter tasksSorter = new TasksSorter();
+    private final JobProcessorService jobProcessorService = new JobProcessorService(tasksSorter);
+    private List<Task> orderedTasks;
+
+    @Setup
+    public void setUp() {
+        orderedTasks = tasksSorter.sortTasks(shape.tasks(size));
+    }
+
+    @Benchmark
+    public String generateBashScript() {
+        return jobProcessorService.generateBashScript(orderedTasks);
+    }
+
+    /**
+     * The response bytes as they used to be produced: a script grown in a {@code StringBuilder} without
+     * a size hint, then encoded by the message converter.
+     */
+    @Benchmark
+    public byte[] stringBuilderBashScript() {
+        final var bashScript = new StringBuilder(JobProcessorService.BASH_SCRIPT_HEADER);
+        for (Task task : orderedTasks) {
+            bashScript.append(task.command()).append("\n");
+        }
+        return bashScript.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] renderBashScript() {
+        return jobProcessorService.renderBashScript(orderedTasks);
+    }
+}
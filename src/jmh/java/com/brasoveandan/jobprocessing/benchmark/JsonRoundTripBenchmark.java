@@ -0,0 +1,48 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON work done by {@code JobProcessingController.processJob}: binding the request body
+ * and writing the ordered tasks.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonRoundTripBenchmark {
+    @Param({"LAYERED"})
+    public DagShape shape;
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private byte[] request;
+    private List<Task> orderedTasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = shape.jobJson(size);
+        orderedTasks = new TasksSorter().sortTasks(shape.tasks(size));
+    }
+
+    @Benchmark
+    public Job readJob() throws IOException {
+        return objectMapper.readValue(request, Job.class);
+    }
+
+    @Benchmark
+    public String writeOrderedTasks() throws IOException {
+        return objectMapper.writeValueAsString(orderedTasks);
+    }
+}
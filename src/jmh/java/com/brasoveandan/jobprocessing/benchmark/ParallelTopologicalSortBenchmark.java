@@ -0,0 +1,60 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.ParallelTopologicalSort;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of the dependency levels of {@link ParallelTopologicalSort} from 1 to N threads, against the same levels
+ * expanded on the calling thread and against the sequential {@link TasksSorter#sortGraph(TaskGraph)}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelTopologicalSortBenchmark {
+    @Param({"FAN_OUT", "LAYERED"})
+    public DagShape shape;
+    @Param({"1000000"})
+    public int size;
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private final TasksSorter tasksSorter = new TasksSorter();
+    private ForkJoinPool pool;
+    private final ParallelTopologicalSort sequentialLevels = new ParallelTopologicalSort(null);
+    private ParallelTopologicalSort parallelSort;
+    private TaskGraph graph;
+
+    @Setup
+    public void setUp() {
+        graph = TaskGraph.of(shape.tasks(size));
+        pool = new ForkJoinPool(threads);
+        parallelSort = new ParallelTopologicalSort(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public ParallelTopologicalSort.Levels parallelLevels() {
+        return parallelSort.levels(graph);
+    }
+
+    @Benchmark
+    public ParallelTopologicalSort.Levels sequentialLevels() {
+        return sequentialLevels.levels(graph);
+    }
+
+    @Benchmark
+    public int[] sequentialSort() {
+        return tasksSorter.sortGraph(graph);
+    }
+}
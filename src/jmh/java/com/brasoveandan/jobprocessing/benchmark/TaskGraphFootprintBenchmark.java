@@ -0,0 +1,95 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.JobStreamProcessor;
+import com.brasoveandan.jobprocessing.core.JobStreamProperties;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory held by a job once read from its JSON request: the {@link Task} records in a {@code HashMap} by name,
+ * as jobs used to be held before sorting, against the compact {@link TaskGraph} of the streaming
+ * endpoint, on the heap and with its CSR arrays off-heap. Run with {@code -prof gc} for the bytes allocated per
+ * read ({@code gc.alloc.rate.norm}); the heap retained per task by each representation is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-XX:+UseSerialGC")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskGraphFootprintBenchmark {
+    @Param({"LAYERED", "RANDOM"})
+    public DagShape shape;
+    @Param({"100000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final JobStreamProcessor heapProcessor = new JobStreamProcessor(objectMapper);
+    private final JobStreamProcessor offHeapProcessor = new JobStreamProcessor(objectMapper, new JobStreamProperties(1));
+    private byte[] jsonRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonRequest = shape.jobJson(size);
+    }
+
+    @TearDown
+    public void printRetainedSizes() throws Exception {
+        System.out.printf("%n%s %d tasks: %d bytes per task as records and index, %d as graph, %d as off-heap graph%n",
+                shape, size, retainedBytes(this::taskRecords) / size, retainedBytes(this::graph) / size,
+                retainedBytes(this::offHeapGraph) / size);
+    }
+
+    @Benchmark
+    public Map<String, Task> taskRecords() throws IOException {
+        final List<Task> tasks = objectMapper.readValue(jsonRequest, Job.class).tasks();
+        final Map<String, Task> index = HashMap.newHashMap(tasks.size());
+        for (Task task : tasks) {
+            index.put(task.name(), task);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public TaskGraph graph() throws IOException {
+        return heapProcessor.readGraph(new ByteArrayInputStream(jsonRequest));
+    }
+
+    @Benchmark
+    public TaskGraph offHeapGraph() throws IOException {
+        return offHeapProcessor.readGraph(new ByteArrayInputStream(jsonRequest));
+    }
+
+    /**
+     * @return the growth of the used heap, after a full collection, while the read job is reachable. The job is
+     * read once beforehand, so that the buffers the parser keeps for later reads are not counted.
+     */
+    private static long retainedBytes(Callable<Object> read) throws Exception {
+        read.call();
+        final long before = usedHeap();
+        final Object job = read.call();
+        final long after = usedHeap();
+        Reference.reachabilityFence(job);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,46 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.OrderingPolicy;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TasksSorterBenchmark {
+    @Param({"CHAIN", "FAN_OUT", "LAYERED", "RANDOM", "DIAMOND"})
+    public DagShape shape;
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+    @Param({"INPUT", "NAME", "CRITICAL_PATH"})
+    public OrderingPolicy ordering;
+
+    private final TasksSorter tasksSorter = new TasksSorter();
+    private List<Task> tasks;
+    private List<String> targets;
+
+    @Setup
+    public void setUp() {
+        tasks = shape.tasks(size);
+        targets = List.of(tasks.get(size / 2).name());
+    }
+
+    @Benchmark
+    public List<Task> sortTasks() {
+        return tasksSorter.sortTasks(tasks, ordering);
+    }
+
+    /**
+     * Only the task in the middle of the job and what it transitively requires.
+     */
+    @Benchmark
+    public List<Task> sortTarget() {
+        return tasksSorter.sortTasks(tasks, ordering, targets);
+    }
+}
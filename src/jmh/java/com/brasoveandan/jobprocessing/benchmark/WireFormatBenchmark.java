@@ -0,0 +1,81 @@
+package com.brasoveandan.jobprocessing.benchmark;
+
+import com.brasoveandan.jobprocessing.core.BinaryJobFormat;
+import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.JobValidator;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON and the binary wire formats of {@code /api/orderedTasks}: reading the request into a validated dependency
+ * graph, as both variants of the endpoint do before sorting, and writing the result. The sizes of both requests
+ * and both responses are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WireFormatBenchmark {
+    @Param({"LAYERED"})
+    public DagShape shape;
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private byte[] jsonRequest;
+    private byte[] binaryRequest;
+    private List<Task> orderedTasks;
+    private int[] order;
+    private int jsonResponseLength;
+    private int binaryResponseLength;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonRequest = shape.jobJson(size);
+        binaryRequest = shape.jobBinary(size);
+        final var tasks = shape.tasks(size);
+        order = new TasksSorter().sortGraph(TaskGraph.of(tasks));
+        orderedTasks = new TasksSorter().sortTasks(tasks);
+        jsonResponseLength = writeJson().length;
+        binaryResponseLength = writeBinary().length;
+    }
+
+    @TearDown
+    public void printSizes() {
+        System.out.printf("%n%s %d tasks: request %d bytes as JSON, %d as binary; response %d bytes as JSON, %d as binary%n",
+                shape, size, jsonRequest.length, binaryRequest.length, jsonResponseLength, binaryResponseLength);
+    }
+
+    @Benchmark
+    public TaskGraph readJson() throws IOException {
+        return JobValidator.validate(objectMapper.readValue(jsonRequest, Job.class).tasks());
+    }
+
+    @Benchmark
+    public TaskGraph readBinary() throws IOException {
+        return BinaryJobFormat.readGraph(new ByteArrayInputStream(binaryRequest));
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(orderedTasks);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        final var out = new ByteArrayOutputStream();
+        BinaryJobFormat.writeOrder(order, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+package com.brasoveandan.jobprocessing.controller;
+
+import com.brasoveandan.jobprocessing.core.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * Asynchronous variant of {@code /api/orderedTasks}: a submission returns a job id at once and the result
+ * is fetched later, so large jobs do not hold a request thread while they are sorted.
+ */
+@RestController
+@RequestMapping("api/jobs")
+@RequiredArgsConstructor
+public class AsyncJobController {
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final String ANONYMOUS_CLIENT = "anonymous";
+
+    private final AsyncJobService asyncJobService;
+    private final AsyncJobProperties properties;
+
+    @PostMapping
+    @Operation(
+            summary = "Submit a job",
+            description = "Queues the job and returns its status; poll it at the Location header. The Accept header selects which result is rendered up front. "
+                    + "Jobs are shared fairly between the clients named by the X-Client-Id header.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "The job was queued"),
+                    @ApiResponse(responseCode = "429", description = "The queue or the client's share of it is full; retry after the Retry-After header")
+            }
+    )
+    public ResponseEntity<?> submitJob(@RequestBody Job job,
+                                       @RequestHeader(required = false, value = CLIENT_ID_HEADER) String clientId,
+                                       @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader) {
+        try {
+            final var status = asyncJobService.submit(job, clientId == null ? ANONYMOUS_CLIENT : clientId,
+                    MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader));
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + status.id())).body(status);
+        } catch (JobRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(properties.retryAfter().toSeconds()))
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the status of a submitted job")
+    public ResponseEntity<AsyncJobStatus> getStatus(@PathVariable String id) {
+        return ResponseEntity.of(asyncJobService.status(id));
+    }
+
+    @GetMapping(value = "/{id}/result", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(
+            summary = "Get the result of a submitted job",
+            description = "Same responses as /api/orderedTasks once the job has finished.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation"),
+                    @ApiResponse(responseCode = "202", description = "The job has not finished yet; retry after the Retry-After header"),
+                    @ApiResponse(responseCode = "400", description = "Invalid job: duplicate task names, unknown required tasks or circular dependencies"),
+                    @ApiResponse(responseCode = "404", description = "Unknown or expired job"),
+                    @ApiResponse(responseCode = "500", description = "The job failed")
+            }
+    )
+    public ResponseEntity<?> getResult(@PathVariable String id,
+                                       @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader) {
+        final var status = asyncJobService.status(id);
+        if (status.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!status.get().state().isFinished()) {
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(properties.retryAfter().toSeconds()))
+                    .build();
+        }
+        final var result = asyncJobService.result(id);
+        if (result.isEmpty()) {
+            final var validationFailure = asyncJobService.validationFailure(id);
+            if (validationFailure.isPresent()) {
+                return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(JobValidationReport.of(validationFailure.get()));
+            }
+            return ResponseEntity.internalServerError().contentType(MediaType.TEXT_PLAIN).body(status.get().error());
+        }
+        if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+            return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE).body(asyncJobService.bashScript(result.get()));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(asyncJobService.json(result.get()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.brasoveandan.jobprocessing.controller;
+
+import com.brasoveandan.jobprocessing.core.BatchTooLargeException;
+import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.JobBatchProcessor;
+import com.brasoveandan.jobprocessing.core.JobProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Batch variant of {@code /api/orderedTasks} for clients sending many small jobs: the jobs are sorted in parallel
+ * and each result is streamed back as one line of newline-delimited JSON as soon as it completes.
+ * It is a separate controller so that {@code LoggingAspect} never serializes the batch.
+ */
+@RestController
+@RequestMapping("api")
+@RequiredArgsConstructor
+public class JobBatchController {
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final JobBatchProcessor jobBatchProcessor;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "/orderedTasks/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Process a batch of jobs",
+            description = "Sorts an array of jobs in parallel. Every job yields one line, in completion order: {\"index\": i, \"orderedTasks\": [...]} "
+                    + "or {\"index\": i, \"error\": \"...\"} when that job failed, such as on a circular dependency; the other jobs are not affected.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation"),
+                    @ApiResponse(responseCode = "413", description = "The batch has more jobs than job-processing.batch.max-jobs"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> processBatch(@RequestBody List<Job> jobs) {
+        // Checked before streaming, while an error status can still be returned.
+        jobBatchProcessor.checkSize(jobs);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> jobBatchProcessor.process(jobs, result -> {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write(NEWLINE);
+                    out.flush();
+                }));
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<String> handleBatchTooLargeException(BatchTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    @ExceptionHandler(JobProcessingException.class)
+    public ResponseEntity<String> handleJobProcessingException(JobProcessingException e) {
+        return ResponseEntity.internalServerError().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+}
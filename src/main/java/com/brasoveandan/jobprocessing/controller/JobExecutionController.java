@@ -0,0 +1,55 @@
+package com.brasoveandan.jobprocessing.controller;
+
+import com.brasoveandan.jobprocessing.core.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * Runs the commands of a job on this host. Only registered when {@code job-processing.execution.enabled} is true.
+ */
+@RestController
+@RequestMapping("api")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "job-processing.execution.enabled", havingValue = "true")
+public class JobExecutionController {
+    static final String INVALID_MAX_CONCURRENCY = "maxConcurrency must be at least 1";
+
+    private final JobExecutor jobExecutor;
+
+    @PostMapping("/executions")
+    @Operation(
+            summary = "Execute a job",
+            description = "Runs every task as soon as the tasks it requires have succeeded and returns the outcome and timing of each task. "
+                    + "With incremental=true, which requires job-processing.memoization.enabled, tasks whose inputs, environment, command and upstream tasks are unchanged since they last succeeded are reported UP_TO_DATE instead of being run.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The job ran; check 'succeeded' for its outcome"),
+                    @ApiResponse(responseCode = "400", description = "Invalid job: duplicate task names, unknown required tasks, circular dependencies or invalid inputs; maxConcurrency below 1; or incremental=true without memoization"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    public ResponseEntity<?> executeJob(@RequestBody Job job,
+                                        @RequestParam(defaultValue = "16") int maxConcurrency,
+                                        @RequestParam(defaultValue = "FAIL_FAST") FailurePolicy failurePolicy,
+                                        @RequestParam(required = false) Duration taskTimeout,
+                                        @RequestParam(defaultValue = "false") boolean incremental) {
+        if (maxConcurrency < 1) {
+            return ResponseEntity.badRequest().body(INVALID_MAX_CONCURRENCY);
+        }
+        if (incremental && !jobExecutor.supportsIncremental()) {
+            return ResponseEntity.badRequest().body(IncrementalPlanner.REQUIRES_MEMOIZATION);
+        }
+        try {
+            return ResponseEntity.ok(jobExecutor.execute(job.tasks(), new ExecutionOptions(maxConcurrency, failurePolicy, taskTimeout, incremental)));
+        } catch (JobValidationException e) {
+            return ResponseEntity.badRequest().body(JobValidationReport.of(e));
+        } catch (JobProcessingException e) {
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.brasoveandan.jobprocessing.controller;
+
+import com.brasoveandan.jobprocessing.core.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.function.Consumer;
+
+/**
+ * Stateful variant of {@code /api/orderedTasks} for jobs that are resubmitted with a few changes: the job is
+ * sorted once into a graph, which is then patched task by task and edge by edge while its order is kept up to date.
+ */
+@RestController
+@RequestMapping("api/graphs")
+@RequiredArgsConstructor
+public class JobGraphController {
+    private final JobGraphRegistry jobGraphRegistry;
+    private final JobProcessorService jobProcessorService;
+
+    @PostMapping
+    @Operation(
+            summary = "Create a job graph",
+            description = "Sorts the job and keeps its graph for later patches; the graph is at the Location header.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "The graph was created"),
+                    @ApiResponse(responseCode = "400", description = "The job has duplicate task names or unknown required tasks, or is too large"),
+                    @ApiResponse(responseCode = "409", description = "The job has a circular dependency")
+            }
+    )
+    public ResponseEntity<?> createGraph(@RequestBody Job job) {
+        try {
+            final var status = jobGraphRegistry.create(job);
+            return ResponseEntity.created(URI.create("/api/graphs/" + status.id())).body(status);
+        } catch (JobProcessingException e) {
+            return error(e);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the status of a job graph")
+    public ResponseEntity<JobGraphStatus> getStatus(@PathVariable String id) {
+        return ResponseEntity.of(jobGraphRegistry.get(id).map(graph -> JobGraphRegistry.status(id, graph)));
+    }
+
+    @GetMapping(value = "/{id}/orderedTasks", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(
+            summary = "Get the ordered tasks of a job graph",
+            description = "Same responses as /api/orderedTasks, for the current state of the graph."
+    )
+    public ResponseEntity<?> getOrderedTasks(@PathVariable String id,
+                                             @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader) {
+        final var graph = jobGraphRegistry.get(id);
+        if (graph.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        final var orderedTasks = graph.get().orderedTasks();
+        if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+            return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE).body(jobProcessorService.renderBashScript(orderedTasks));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(orderedTasks);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a job graph")
+    public ResponseEntity<Void> deleteGraph(@PathVariable String id) {
+        return jobGraphRegistry.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/{id}/tasks")
+    @Operation(
+            summary = "Add a task",
+            description = "The task is ordered after all the others; its requires must name tasks of the graph.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The task was added"),
+                    @ApiResponse(responseCode = "400", description = "Duplicate task name or unknown required task, or the graph would be too large"),
+                    @ApiResponse(responseCode = "404", description = "Unknown or expired graph")
+            }
+    )
+    public ResponseEntity<?> addTask(@PathVariable String id, @RequestBody Task task) {
+        return patch(id, 1 + (task.requires() == null ? 0 : task.requires().size()), graph -> graph.addTask(task));
+    }
+
+    @DeleteMapping("/{id}/tasks/{name}")
+    @Operation(summary = "Remove a task and all its edges")
+    public ResponseEntity<?> removeTask(@PathVariable String id, @PathVariable String name) {
+        return patch(id, 0, graph -> graph.removeTask(name));
+    }
+
+    @PutMapping("/{id}/tasks/{name}/requires/{requiredName}")
+    @Operation(
+            summary = "Make a task require another one",
+            description = "Only the tasks ordered between the two of them are reordered.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The edge was added"),
+                    @ApiResponse(responseCode = "400", description = "Unknown task, or the graph would be too large"),
+                    @ApiResponse(responseCode = "404", description = "Unknown or expired graph"),
+                    @ApiResponse(responseCode = "409", description = "The edge would close a cycle; the graph is unchanged")
+            }
+    )
+    public ResponseEntity<?> addRequirement(@PathVariable String id, @PathVariable String name, @PathVariable String requiredName) {
+        return patch(id, 1, graph -> graph.addRequirement(name, requiredName));
+    }
+
+    @DeleteMapping("/{id}/tasks/{name}/requires/{requiredName}")
+    @Operation(summary = "Remove a requirement of a task")
+    public ResponseEntity<?> removeRequirement(@PathVariable String id, @PathVariable String name, @PathVariable String requiredName) {
+        return patch(id, 0, graph -> graph.removeRequirement(name, requiredName));
+    }
+
+    private ResponseEntity<?> patch(String id, long growth, Consumer<DynamicTaskGraph> change) {
+        try {
+            return ResponseEntity.of(jobGraphRegistry.patch(id, growth, change));
+        } catch (JobProcessingException e) {
+            return error(e);
+        }
+    }
+
+    private static ResponseEntity<?> error(JobProcessingException e) {
+        final var status = e instanceof CircularDependencyException ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        if (e instanceof JobValidationException validation && !validation.getErrors().isEmpty()) {
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(JobValidationReport.of(validation));
+        }
+        return ResponseEntity.status(status).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+}
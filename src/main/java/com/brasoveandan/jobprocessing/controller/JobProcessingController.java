@@ -1,8 +1,23 @@
 package com.brasoveandan.jobprocessing.controller;
 
+import com.brasoveandan.jobprocessing.core.BinaryJobFormat;
+import com.brasoveandan.jobprocessing.core.ExecutionPlanner;
+import com.brasoveandan.jobprocessing.core.IncrementalPlan;
+import com.brasoveandan.jobprocessing.core.IncrementalPlanner;
 import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.JobMetrics;
 import com.brasoveandan.jobprocessing.core.JobProcessingException;
 import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.JobResult;
+import com.brasoveandan.jobprocessing.core.JobResultCache;
+import com.brasoveandan.jobprocessing.core.JobStreamProcessor;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.JobValidationReport;
+import com.brasoveandan.jobprocessing.core.ResponseCompressor;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.brasoveandan.jobprocessing.core.UnparsableJobException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,52 +25,191 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("api")
 @RequiredArgsConstructor
 public class JobProcessingController {
+    static final String INCREMENTAL_AND_PARALLEL = "incremental=true cannot be combined with parallel=true";
+    static final String INVALID_MAX_JOBS = "maxJobs must be at least 1";
+
     private final JobProcessorService jobProcessorService;
+    private final JobResultCache jobResultCache;
+    private final ExecutionPlanner executionPlanner;
+    private final JobMetrics jobMetrics;
     private final ObjectMapper objectMapper;
+    private final TasksSorter tasksSorter;
+    private final JobStreamProcessor jobStreamProcessor;
+    private final ResponseCompressor responseCompressor;
+    private final ObjectProvider<IncrementalPlanner> incrementalPlanner;
 
-    @PostMapping(value = "/orderedTasks", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    @PostMapping(value = "/orderedTasks", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE, BinaryJobFormat.MEDIA_TYPE_VALUE})
     @Operation(
             summary = "Process job and order tasks",
-            description = "If the Accept header is text/plain, you will see the bash script; otherwise if the Accept header is application/json, the ordered tasks are returned. Select the 'Header' option from the 'Media type' dropdown in the responses tab.",
+            description = "If the Accept header is text/plain, you will see the bash script; otherwise if the Accept header is application/json, the ordered tasks are returned. Select the 'Header' option from the 'Media type' dropdown in the responses tab. "
+                    + "Ready tasks are ordered by the job's 'ordering' policy: INPUT (default), NAME, PRIORITY, LONGEST_DURATION or CRITICAL_PATH. "
+                    + "With 'targets' set to task names, only those tasks and the tasks they transitively require are ordered, and only their commands are in the bash script. "
+                    + "With incremental=true, which requires job-processing.memoization.enabled, only the tasks that changed since they last succeeded in an incremental execution, and everything downstream of them, are ordered; the JSON response also lists the up-to-date tasks. "
+                    + "With parallel=true the tasks are grouped into dependency levels: the JSON response is the execution plan and the bash script runs each level concurrently, at most maxJobs (the script's -j option) at a time; it cannot be combined with incremental=true. "
+                    + "With an Accept header of " + BinaryJobFormat.MEDIA_TYPE_VALUE + " the response is the binary permutation of the request's task indices.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successful operation",
                             content = {
                                     @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = MediaType.class)),
                                     @Content(mediaType = MediaType.TEXT_PLAIN_VALUE, schema = @Schema(implementation = MediaType.class))
                             }),
+                    @ApiResponse(responseCode = "400", description = "Invalid job: duplicate task names, unknown required tasks, circular dependencies, unknown targets or invalid inputs; or incremental=true without memoization or with parallel=true; or maxJobs below 1"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    public ResponseEntity<?> processJob(@RequestBody Job job, @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader,
+                                        @RequestHeader(required = false, value = HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                                        @RequestParam(defaultValue = "false") boolean parallel,
+                                        @RequestParam(required = false) Integer maxJobs,
+                                        @RequestParam(defaultValue = "false") boolean incremental) {
+        if (incremental && parallel) {
+            return ResponseEntity.badRequest().body(INCREMENTAL_AND_PARALLEL);
+        }
+        if (maxJobs != null && maxJobs < 1) {
+            return ResponseEntity.badRequest().body(INVALID_MAX_JOBS);
+        }
+        try {
+            if (incremental) {
+                return processJobIncrementally(job, acceptHeader);
+            }
+            if (parallel) {
+                return processJobInParallel(job, acceptHeader, maxJobs);
+            }
+            if (BinaryJobFormat.MEDIA_TYPE_VALUE.equals(acceptHeader)) {
+                final List<Task> tasks = job.tasks() == null ? List.of() : job.tasks();
+                return binaryOrder(tasksSorter.sortIndices(tasks, job.ordering(), job.targets()));
+            }
+            final var result = jobResultCache.get(job, jobProcessorService::orderTasks);
+            if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+                return bashScript(result, acceptEncoding);
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(result.json(this::writeJson));
+        } catch (JobValidationException e) {
+            return invalidJob(e);
+        } catch (JobProcessingException e) {
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/orderedTasks", consumes = BinaryJobFormat.MEDIA_TYPE_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE, BinaryJobFormat.MEDIA_TYPE_VALUE})
+    @Operation(
+            summary = "Process a binary job and order tasks",
+            description = "Same as the JSON variant for a job encoded in the " + BinaryJobFormat.MEDIA_TYPE_VALUE + " format, where task names are sent once and requirements as task indices. "
+                    + "The format has no ordering, targets, priorities or estimated durations: every task is ordered, with the INPUT policy. "
+                    + "The Accept header selects the bash script, the JSON ordered tasks or the binary permutation of the task indices.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation"),
+                    @ApiResponse(responseCode = "400", description = "Unparsable or invalid job: duplicate task names, unknown required tasks or circular dependencies"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
-    public ResponseEntity<?> processJob(@RequestBody Job job, @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader) {
+    public ResponseEntity<?> processBinaryJob(InputStream body, @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader) {
         try {
-            final var orderedTasks = jobProcessorService.orderTasks(job);
-            return Optional.ofNullable(acceptHeader)
-                    .filter(MediaType.TEXT_PLAIN_VALUE::equals)
-                    .map(header -> ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN)
-                            .body(jobProcessorService.generateBashScript(orderedTasks)))
-                    .orElseGet(() -> {
-                        try {
-                            String json = objectMapper.writeValueAsString(orderedTasks);
-                            return ResponseEntity.ok()
-                                    .contentType(MediaType.APPLICATION_JSON)
-                                    .body(json);
-                        } catch (JsonProcessingException e) {
-                            throw new JobProcessingException("Unparsable JSON response", e);
-                        }
-                    });
+            final TaskGraph graph = BinaryJobFormat.readGraph(body);
+            final int[] order = tasksSorter.sortGraph(graph);
+            if (BinaryJobFormat.MEDIA_TYPE_VALUE.equals(acceptHeader)) {
+                return binaryOrder(order);
+            }
+            final var out = new ByteArrayOutputStream();
+            if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+                jobStreamProcessor.writeBashScript(graph, order, out);
+                return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE).body(out.toByteArray());
+            }
+            jobStreamProcessor.writeOrderedTasks(graph, order, out);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out.toByteArray());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Unparsable binary request");
+        } catch (UnparsableJobException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (JobValidationException e) {
+            return invalidJob(e);
         } catch (JobProcessingException e) {
             return ResponseEntity.internalServerError().body(e.getMessage());
         }
     }
+
+    /**
+     * The cached bash script of a result, gzipped once and for all when it is large and the client accepts it.
+     */
+    private ResponseEntity<byte[]> bashScript(JobResult result, String acceptEncoding) {
+        final byte[] bashScript = result.bashScript(jobProcessorService::renderBashScript);
+        if (responseCompressor.shouldCompress(acceptEncoding, () -> bashScript.length)) {
+            return ResponseEntity.ok()
+                    .contentType(JobProcessorService.BASH_SCRIPT_TYPE)
+                    .header(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .body(result.gzippedBashScript(jobProcessorService::renderBashScript, responseCompressor::gzip));
+        }
+        return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE).body(bashScript);
+    }
+
+    private static ResponseEntity<JobValidationReport> invalidJob(JobValidationException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(JobValidationReport.of(e));
+    }
+
+    private ResponseEntity<byte[]> binaryOrder(int[] order) {
+        final var out = new ByteArrayOutputStream(order.length * 3 + 8);
+        try {
+            BinaryJobFormat.writeOrder(order, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(BinaryJobFormat.MEDIA_TYPE_VALUE)).body(out.toByteArray());
+    }
+
+    /**
+     * Not cached: the plan depends on the recorded successes and on the inputs of the tasks, not only on the job.
+     */
+    private ResponseEntity<?> processJobIncrementally(Job job, String acceptHeader) {
+        final IncrementalPlanner planner = incrementalPlanner.getIfAvailable();
+        if (planner == null) {
+            return ResponseEntity.badRequest().body(IncrementalPlanner.REQUIRES_MEMOIZATION);
+        }
+        final IncrementalPlan plan = planner.plan(tasksSorter.requiredClosure(job.tasks(), job.targets()), job.ordering());
+        if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+            return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE)
+                    .body(jobProcessorService.renderBashScript(plan.orderedTasks()));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(plan);
+    }
+
+    private ResponseEntity<?> processJobInParallel(Job job, String acceptHeader, Integer maxJobs) {
+        final var plan = executionPlanner.plan(tasksSorter.requiredClosure(job.tasks(), job.targets()));
+        if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+            return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE)
+                    .body(jobProcessorService.generateParallelBashScript(plan, maxJobs));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(plan);
+    }
+
+    private byte[] writeJson(List<Task> orderedTasks) {
+        return jobMetrics.serialization("json").record(() -> {
+            try {
+                return objectMapper.writeValueAsBytes(orderedTasks);
+            } catch (JsonProcessingException e) {
+                throw new JobProcessingException("Unparsable JSON response", e);
+            }
+        });
+    }
 }
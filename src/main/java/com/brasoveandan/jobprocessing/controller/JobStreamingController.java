@@ -0,0 +1,97 @@
+package com.brasoveandan.jobprocessing.controller;
+
+import com.brasoveandan.jobprocessing.core.JobProcessingException;
+import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.JobStreamProcessor;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.JobValidationReport;
+import com.brasoveandan.jobprocessing.core.ResponseCompressor;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.brasoveandan.jobprocessing.core.UnparsableJobException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming variant of {@code /api/orderedTasks} for very large jobs: the request body is parsed straight
+ * into a compact graph and the response is written to the output stream instead of being built in memory.
+ * It is a separate controller so that {@code LoggingAspect} never serializes the payload.
+ */
+@RestController
+@RequestMapping("api")
+@RequiredArgsConstructor
+public class JobStreamingController {
+    private final JobStreamProcessor jobStreamProcessor;
+    private final TasksSorter tasksSorter;
+    private final ResponseCompressor responseCompressor;
+
+    @PostMapping(value = "/orderedTasks/stream", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(
+            summary = "Process a large job and stream the ordered tasks",
+            description = "Same contract as /api/orderedTasks, ordering and targets included, with the request parsed and the response written as streams.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful operation",
+                            content = {
+                                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = MediaType.class)),
+                                    @Content(mediaType = MediaType.TEXT_PLAIN_VALUE, schema = @Schema(implementation = MediaType.class))
+                            }),
+                    @ApiResponse(responseCode = "400", description = "Unparsable or invalid job: duplicate task names, unknown required tasks, circular dependencies or unknown targets"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> streamJob(InputStream body, @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String acceptHeader,
+                                                           @RequestHeader(required = false, value = HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        final JobStreamProcessor.StreamedJob job;
+        try {
+            job = jobStreamProcessor.readJob(body);
+        } catch (IOException e) {
+            throw new UnparsableJobException("Unparsable JSON request", e);
+        }
+        // The graph is fully sorted before anything is written, so a cycle can still be reported as an error.
+        final var graph = job.graph();
+        final var order = tasksSorter.sortGraph(graph, job.ordering(), job.priorities(), job.durations(), job.targets());
+        if (MediaType.TEXT_PLAIN_VALUE.equals(acceptHeader)) {
+            if (responseCompressor.shouldCompress(acceptEncoding, () -> jobStreamProcessor.bashScriptLength(graph, order))) {
+                return ResponseEntity.ok()
+                        .contentType(JobProcessorService.BASH_SCRIPT_TYPE)
+                        .header(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .body(out -> {
+                            final var gzip = responseCompressor.gzip(out);
+                            jobStreamProcessor.writeBashScript(graph, order, gzip);
+                            gzip.finish();
+                        });
+            }
+            return ResponseEntity.ok().contentType(JobProcessorService.BASH_SCRIPT_TYPE)
+                    .body(out -> jobStreamProcessor.writeBashScript(graph, order, out));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(out -> jobStreamProcessor.writeOrderedTasks(graph, order, out));
+    }
+
+    @ExceptionHandler(JobValidationException.class)
+    public ResponseEntity<JobValidationReport> handleJobValidationException(JobValidationException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(JobValidationReport.of(e));
+    }
+
+    @ExceptionHandler(UnparsableJobException.class)
+    public ResponseEntity<String> handleUnparsableJobException(UnparsableJobException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    @ExceptionHandler(JobProcessingException.class)
+    public ResponseEntity<String> handleJobProcessingException(JobProcessingException e) {
+        return ResponseEntity.internalServerError().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+}
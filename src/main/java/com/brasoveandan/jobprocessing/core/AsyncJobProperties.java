@@ -0,0 +1,25 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param workers             the number of threads sorting and rendering queued jobs.
+ * @param queueCapacity       the maximum number of jobs queued or running at the same time.
+ * @param maxJobsPerClient    the maximum number of jobs one client may have queued or running.
+ * @param maxBypasses         the maximum number of jobs submitted after a queued job that may be served before it.
+ * @param retryAfter          the delay suggested to clients whose submission was rejected.
+ * @param resultTtl           how long a finished job and its result are kept.
+ * @param maxFinishedJobs     the maximum number of finished jobs kept; the least recently used ones are dropped first.
+ */
+@ConfigurationProperties("job-processing.async")
+public record AsyncJobProperties(@DefaultValue("4") int workers,
+                                 @DefaultValue("1000") int queueCapacity,
+                                 @DefaultValue("100") int maxJobsPerClient,
+                                 @DefaultValue("100") int maxBypasses,
+                                 @DefaultValue("5s") Duration retryAfter,
+                                 @DefaultValue("10m") Duration resultTtl,
+                                 @DefaultValue("10000") int maxFinishedJobs) {
+}
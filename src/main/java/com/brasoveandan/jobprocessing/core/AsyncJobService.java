@@ -0,0 +1,256 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sorts and renders submitted jobs on a dedicated worker pool, off the request threads.
+ * <p>
+ * The queue is bounded: a submission is rejected when {@code queue-capacity} jobs are already queued or running,
+ * or when its client already has {@code max-jobs-per-client} of them. Queued jobs are served by deadline: the
+ * sequence number of their submission, delayed by their number of tasks, or by {@code max-bypasses} when their client
+ * already had jobs in progress, and never by more than {@code max-bypasses}. Small jobs and jobs of idle clients
+ * therefore go first, while no job is overtaken by more than {@code max-bypasses} jobs submitted after it.
+ * Finished jobs are kept for {@code result-ttl}, and at most {@code max-finished-jobs} of them.
+ */
+@Log4j2
+@Component
+@EnableConfigurationProperties(AsyncJobProperties.class)
+public class AsyncJobService {
+    private final JobProcessorService jobProcessorService;
+    private final JobResultCache jobResultCache;
+    private final ObjectMapper objectMapper;
+    private final JobMetrics jobMetrics;
+    private final AsyncJobProperties properties;
+    private final ThreadPoolExecutor workers;
+    private final Cache<String, AsyncJob> jobs;
+    private final Map<String, Integer> jobsPerClient = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingJobs = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public AsyncJobService(JobProcessorService jobProcessorService, JobResultCache jobResultCache,
+                           ObjectMapper objectMapper, JobMetrics jobMetrics, AsyncJobProperties properties) {
+        this.jobProcessorService = jobProcessorService;
+        this.jobResultCache = jobResultCache;
+        this.objectMapper = objectMapper;
+        this.jobMetrics = jobMetrics;
+        this.properties = properties;
+        this.workers = new ThreadPoolExecutor(properties.workers(), properties.workers(), 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), Thread.ofPlatform().name("async-job-", 0).factory());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry(properties.resultTtl().toNanos()))
+                // Queued and running jobs weigh nothing, so that only finished ones are evicted.
+                .maximumWeight(properties.maxFinishedJobs())
+                .weigher((String id, AsyncJob asyncJob) -> asyncJob.state.isFinished() ? 1 : 0)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Queues a job.
+     *
+     * @param job        the job to sort.
+     * @param clientId   the submitting client, for fairness between clients.
+     * @param bashScript whether the bash script, rather than the JSON ordered tasks, is rendered up front.
+     * @return the status of the queued job.
+     * @throws JobRejectedException if the queue or the client's share of it is full.
+     */
+    public AsyncJobStatus submit(Job job, String clientId, boolean bashScript) {
+        final int clientRank = acquireClientSlot(clientId);
+        if (clientRank < 0) {
+            throw new JobRejectedException("Client " + clientId + " already has " + properties.maxJobsPerClient() + " jobs in progress");
+        }
+        if (pendingJobs.incrementAndGet() > properties.queueCapacity()) {
+            pendingJobs.decrementAndGet();
+            releaseClientSlot(clientId);
+            throw new JobRejectedException("Job queue is full");
+        }
+
+        final var asyncJob = new AsyncJob(UUID.randomUUID().toString(), clientId, job, bashScript);
+        jobs.put(asyncJob.id, asyncJob);
+        final long delay = clientRank > 0 ? properties.maxBypasses() : Math.min(properties.maxBypasses(), asyncJob.taskCount);
+        workers.execute(new QueuedJob(asyncJob, sequence.getAndIncrement() + delay));
+        log.debug("Queued job {} of client {} with {} tasks.", asyncJob.id, clientId, asyncJob.taskCount);
+        return asyncJob.status();
+    }
+
+    public Optional<AsyncJobStatus> status(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id)).map(AsyncJob::status);
+    }
+
+    /**
+     * @return the result of the job, if it exists and succeeded.
+     */
+    public Optional<JobResult> result(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id)).map(asyncJob -> asyncJob.result);
+    }
+
+    /**
+     * @return why the job was rejected, if it exists and failed because it is invalid.
+     */
+    public Optional<JobValidationException> validationFailure(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id)).map(asyncJob -> asyncJob.validationFailure);
+    }
+
+    public byte[] bashScript(JobResult result) {
+        return result.bashScript(jobProcessorService::renderBashScript);
+    }
+
+    public byte[] json(JobResult result) {
+        return result.json(this::writeJson);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void process(AsyncJob asyncJob) {
+        asyncJob.startedAt = Instant.now();
+        asyncJob.state = AsyncJobState.RUNNING;
+        try {
+            final var result = jobResultCache.get(asyncJob.job, jobProcessorService::orderTasks);
+            if (asyncJob.bashScript) {
+                bashScript(result);
+            } else {
+                json(result);
+            }
+            asyncJob.result = result;
+            asyncJob.state = AsyncJobState.SUCCEEDED;
+        } catch (JobValidationException e) {
+            log.debug("Job {} is invalid.", asyncJob.id, e);
+            asyncJob.error = e.getMessage();
+            asyncJob.validationFailure = e;
+            asyncJob.state = AsyncJobState.FAILED;
+        } catch (RuntimeException e) {
+            log.debug("Job {} failed.", asyncJob.id, e);
+            asyncJob.error = e.getMessage();
+            asyncJob.state = AsyncJobState.FAILED;
+        } finally {
+            asyncJob.completedAt = Instant.now();
+            // The request is no longer needed, only its result.
+            asyncJob.job = null;
+            pendingJobs.decrementAndGet();
+            releaseClientSlot(asyncJob.clientId);
+            // Re-inserting restarts the expiry, now that the job is finished.
+            jobs.put(asyncJob.id, asyncJob);
+        }
+    }
+
+    private byte[] writeJson(List<Task> orderedTasks) {
+        return jobMetrics.serialization("json").record(() -> {
+            try {
+                return objectMapper.writeValueAsBytes(orderedTasks);
+            } catch (JsonProcessingException e) {
+                throw new JobProcessingException("Unparsable JSON response", e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of jobs the client already had in progress, or -1 if it has no slot left.
+     */
+    private int acquireClientSlot(String clientId) {
+        final int[] rank = {-1};
+        jobsPerClient.compute(clientId, (client, count) -> {
+            final int current = count == null ? 0 : count;
+            if (current >= properties.maxJobsPerClient()) {
+                return count;
+            }
+            rank[0] = current;
+            return current + 1;
+        });
+        return rank[0];
+    }
+
+    private void releaseClientSlot(String clientId) {
+        jobsPerClient.computeIfPresent(clientId, (client, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static final class AsyncJob {
+        private final String id;
+        private final String clientId;
+        private final int taskCount;
+        private final boolean bashScript;
+        private final Instant submittedAt = Instant.now();
+        private volatile Job job;
+        private volatile AsyncJobState state = AsyncJobState.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant completedAt;
+        private volatile JobResult result;
+        private volatile String error;
+        private volatile JobValidationException validationFailure;
+
+        private AsyncJob(String id, String clientId, Job job, boolean bashScript) {
+            this.id = id;
+            this.clientId = clientId;
+            this.job = job;
+            this.taskCount = job.tasks() == null ? 0 : job.tasks().size();
+            this.bashScript = bashScript;
+        }
+
+        private AsyncJobStatus status() {
+            return new AsyncJobStatus(id, state, taskCount, submittedAt, startedAt, completedAt, error);
+        }
+    }
+
+    private final class QueuedJob implements Runnable, Comparable<QueuedJob> {
+        private static final Comparator<QueuedJob> PRIORITY = Comparator.<QueuedJob>comparingLong(queued -> queued.deadline)
+                .thenComparingInt(queued -> queued.asyncJob.taskCount);
+
+        private final AsyncJob asyncJob;
+        private final long deadline;
+
+        private QueuedJob(AsyncJob asyncJob, long deadline) {
+            this.asyncJob = asyncJob;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            process(asyncJob);
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            return PRIORITY.compare(this, other);
+        }
+    }
+
+    /**
+     * Keeps queued and running jobs until they finish, and finished jobs for the result TTL.
+     */
+    private record FinishedJobExpiry(long ttlNanos) implements Expiry<String, AsyncJob> {
+        @Override
+        public long expireAfterCreate(String id, AsyncJob asyncJob, long currentTime) {
+            return asyncJob.state.isFinished() ? ttlNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, AsyncJob asyncJob, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, asyncJob, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, AsyncJob asyncJob, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
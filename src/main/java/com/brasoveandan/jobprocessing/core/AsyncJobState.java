@@ -0,0 +1,12 @@
+package com.brasoveandan.jobprocessing.core;
+
+public enum AsyncJobState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,19 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * @param id          the job id returned on submission.
+ * @param state       where the job is in its lifecycle.
+ * @param taskCount   the number of tasks of the job.
+ * @param submittedAt when the job was accepted.
+ * @param startedAt   when a worker picked the job up.
+ * @param completedAt when the job finished.
+ * @param error       why the job failed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AsyncJobStatus(String id, AsyncJobState state, int taskCount,
+                             Instant submittedAt, Instant startedAt, Instant completedAt, String error) {
+}
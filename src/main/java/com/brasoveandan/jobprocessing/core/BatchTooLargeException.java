@@ -0,0 +1,10 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Thrown when a batch has more jobs than {@code job-processing.batch.max-jobs}.
+ */
+@StandardException
+public class BatchTooLargeException extends JobProcessingException {
+}
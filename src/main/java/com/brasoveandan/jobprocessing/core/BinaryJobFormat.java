@@ -0,0 +1,197 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary alternative to the JSON job and ordered tasks, negotiated with the {@value #MEDIA_TYPE_VALUE}
+ * content type. Task names are written once and requirements travel as task indices, and the ordered result
+ * is only the permutation of those indices:
+ * <pre>
+ * job    = "JOB" version task-count task*
+ * task   = string(name) string(command) requires-count task-index*
+ * order  = "ORD" version task-count task-index*
+ * string = (UTF-8 byte length + 1) bytes, 0 for null
+ * </pre>
+ * The version is one byte; every count, index and length is an unsigned LEB128 varint.
+ * <p>
+ * A job carries its tasks' names, commands and requirements only: it is ordered with {@link OrderingPolicy#INPUT}
+ * as a whole, and the ordering policy, targets, priorities and estimated durations need the JSON job.
+ */
+public final class BinaryJobFormat {
+    public static final String MEDIA_TYPE_VALUE = "application/x-job-graph";
+    private static final byte[] JOB_MAGIC = {'J', 'O', 'B', 1};
+    private static final byte[] ORDER_MAGIC = {'O', 'R', 'D', 1};
+    // Counts are untrusted, so arrays grow as data actually arrives instead of being sized from them.
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+    private BinaryJobFormat() {
+    }
+
+    /**
+     * Encodes a job; requirements naming an unknown task are dropped, as {@link TaskGraph#of(List)} ignores them.
+     *
+     * @param tasks the tasks of the job.
+     * @param out   the stream to write to; it is flushed but not closed.
+     */
+    public static void writeJob(List<Task> tasks, OutputStream out) throws IOException {
+        final Map<String, Integer> index = HashMap.newHashMap(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            index.putIfAbsent(tasks.get(i).name(), i);
+        }
+        final var data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(JOB_MAGIC);
+        writeVarInt(data, tasks.size());
+        final int[] required = new int[16];
+        for (Task task : tasks) {
+            writeString(data, task.name());
+            writeString(data, task.command());
+            final List<String> requires = task.requires() == null ? List.of() : task.requires();
+            int count = 0;
+            final int[] indices = requires.size() <= required.length ? required : new int[requires.size()];
+            for (String name : requires) {
+                final Integer i = index.get(name);
+                if (i != null) {
+                    indices[count++] = i;
+                }
+            }
+            writeVarInt(data, count);
+            for (int k = 0; k < count; k++) {
+                writeVarInt(data, indices[k]);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Decodes a job straight into its dependency graph; task {@code i} of the graph is the i-th encoded task.
+     *
+     * @param in the encoded job.
+     * @return the dependency graph of the job.
+     */
+    public static TaskGraph readGraph(InputStream in) throws IOException {
+        final var data = new DataInputStream(new BufferedInputStream(in));
+        expectMagic(data, JOB_MAGIC);
+        final int size = readVarInt(data);
+        String[] names = new String[Math.min(size, MAX_INITIAL_CAPACITY)];
+        String[] commands = new String[names.length];
+        int[] from = new int[names.length];
+        int[] to = new int[names.length];
+        int edgeCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == names.length) {
+                names = Arrays.copyOf(names, i * 2);
+                commands = Arrays.copyOf(commands, i * 2);
+            }
+            names[i] = readString(data);
+            commands[i] = readString(data);
+            for (int k = readVarInt(data); k > 0; k--) {
+                final int required = readVarInt(data);
+                if (required >= size) {
+                    throw new UnparsableJobException("Unparsable binary request: task index " + required + " out of " + size);
+                }
+                if (edgeCount == from.length) {
+                    from = Arrays.copyOf(from, Math.max(16, edgeCount * 2));
+                    to = Arrays.copyOf(to, from.length);
+                }
+                from[edgeCount] = required;
+                to[edgeCount++] = i;
+            }
+        }
+        if (names.length != size) {
+            names = Arrays.copyOf(names, size);
+            commands = Arrays.copyOf(commands, size);
+        }
+        return TaskGraph.of(names, commands, from, to, edgeCount);
+    }
+
+    /**
+     * @param order the task indices in topological order.
+     * @param out   the stream to write to; it is flushed but not closed.
+     */
+    public static void writeOrder(int[] order, OutputStream out) throws IOException {
+        final var data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(ORDER_MAGIC);
+        writeVarInt(data, order.length);
+        for (int i : order) {
+            writeVarInt(data, i);
+        }
+        data.flush();
+    }
+
+    /**
+     * @param in the encoded ordered result.
+     * @return the task indices in topological order.
+     */
+    public static int[] readOrder(InputStream in) throws IOException {
+        final var data = new DataInputStream(new BufferedInputStream(in));
+        expectMagic(data, ORDER_MAGIC);
+        final int size = readVarInt(data);
+        int[] order = new int[Math.min(size, MAX_INITIAL_CAPACITY)];
+        for (int k = 0; k < size; k++) {
+            if (k == order.length) {
+                order = Arrays.copyOf(order, k * 2);
+            }
+            order[k] = readVarInt(data);
+        }
+        return order.length == size ? order : Arrays.copyOf(order, size);
+    }
+
+    private static void expectMagic(DataInputStream data, byte[] magic) throws IOException {
+        final byte[] actual = new byte[magic.length];
+        data.readFully(actual);
+        if (!Arrays.equals(actual, magic)) {
+            throw new UnparsableJobException("Unparsable binary request: unsupported header " + HexFormat.of().formatHex(actual));
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(data, 0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(data, bytes.length + 1);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        final int length = readVarInt(data) - 1;
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = data.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new UnparsableJobException("Unparsable binary request: invalid varint");
+    }
+}
@@ -0,0 +1,14 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.List;
+
+public class CircularDependencyException extends JobValidationException {
+
+    public CircularDependencyException(String message) {
+        super(message);
+    }
+
+    public CircularDependencyException(String message, List<JobValidationError> errors) {
+        super(message, errors);
+    }
+}
@@ -0,0 +1,14 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @param enabled whether large bash scripts are gzipped for clients that accept it.
+ * @param minSize the size from which a bash script is compressed.
+ */
+@ConfigurationProperties("job-processing.compression")
+public record CompressionProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("1MB") DataSize minSize) {
+}
@@ -0,0 +1,369 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.*;
+
+/**
+ * Mutable dependency graph that keeps a topological order up to date as tasks and {@code requires} edges are
+ * added and removed, using the dynamic topological sort of Pearce and Kelly.
+ * <p>
+ * Every task holds a position; an edge only triggers work when it points backwards in the current order, and then
+ * only the tasks whose positions lie between its two ends and that are reachable from either end are reordered.
+ * Cycles are detected while inserting an edge, in which case the graph is left unchanged.
+ * <p>
+ * Every entry of an adjacency list also holds the position of the matching entry in the list of the other end of the
+ * edge, so that an edge is unlinked in constant time once found, and a task in time linear in its degree.
+ * All methods are synchronized.
+ */
+public final class DynamicTaskGraph {
+    private static final int[] NO_EDGES = new int[0];
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private String[] names = new String[16];
+    private String[] commands = new String[16];
+    private int[][] requires = new int[16][];
+    // requires[id][k] is dependents[requires[id][k]][requiresBack[id][k]], and the other way around.
+    private int[][] requiresBack = new int[16][];
+    private int[] requiresSize = new int[16];
+    private int[][] dependents = new int[16][];
+    private int[][] dependentsBack = new int[16][];
+    private int[] dependentsSize = new int[16];
+    private int[] ord = new int[16];
+    private boolean[] visited = new boolean[16];
+    private int idCount;
+    // Position -> id, -1 for the positions freed by removed tasks.
+    private int[] node = new int[16];
+    private int positionCount;
+    private int edgeCount;
+
+    /**
+     * Builds the graph of the given tasks, in the given topological order.
+     * Requirements naming an unknown task are ignored.
+     *
+     * @param tasks a list of unsorted tasks.
+     * @param order the task indices in topological order, as returned by {@link TasksSorter#sortGraph(TaskGraph)}.
+     * @return the graph.
+     */
+    public static DynamicTaskGraph of(List<Task> tasks, int[] order) {
+        final var graph = new DynamicTaskGraph();
+        final int[] idOf = new int[tasks.size()];
+        for (int i : order) {
+            final Task task = tasks.get(i);
+            idOf[i] = graph.newTask(task.name(), task.command());
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            final List<String> requires = tasks.get(i).requires();
+            if (requires == null) {
+                continue;
+            }
+            for (String required : requires) {
+                final Integer from = graph.ids.get(required);
+                if (from != null && !graph.hasEdge(from, idOf[i])) {
+                    graph.link(from, idOf[i]);
+                }
+            }
+        }
+        return graph;
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    public synchronized int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return the tasks in topological order.
+     */
+    public synchronized List<Task> orderedTasks() {
+        final List<Task> orderedTasks = new ArrayList<>(ids.size());
+        for (int position = 0; position < positionCount; position++) {
+            final int id = node[position];
+            if (id >= 0) {
+                final List<String> required = new ArrayList<>(requiresSize[id]);
+                for (int k = 0; k < requiresSize[id]; k++) {
+                    required.add(names[requires[id][k]]);
+                }
+                orderedTasks.add(new Task(names[id], commands[id], required));
+            }
+        }
+        return orderedTasks;
+    }
+
+    /**
+     * Adds a task after all the others; its requirements must name existing tasks.
+     */
+    public synchronized void addTask(Task task) {
+        if (ids.containsKey(task.name())) {
+            throw new JobProcessingException("Duplicate task name: " + task.name());
+        }
+        final List<String> required = task.requires() == null ? List.of() : task.requires();
+        for (String name : required) {
+            idOf(name);
+        }
+        final int id = newTask(task.name(), task.command());
+        // The new task is last in the order, so none of its edges can point backwards.
+        for (String name : required) {
+            final int from = ids.get(name);
+            if (!hasEdge(from, id)) {
+                link(from, id);
+            }
+        }
+    }
+
+    public synchronized void removeTask(String name) {
+        final int id = idOf(name);
+        while (requiresSize[id] > 0) {
+            final int k = requiresSize[id] - 1;
+            unlink(requires[id][k], requiresBack[id][k]);
+        }
+        while (dependentsSize[id] > 0) {
+            unlink(id, dependentsSize[id] - 1);
+        }
+        ids.remove(name);
+        node[ord[id]] = -1;
+        names[id] = null;
+        commands[id] = null;
+        freeIds.push(id);
+        if (positionCount > 2 * ids.size() + 16) {
+            compact();
+        }
+    }
+
+    /**
+     * Makes {@code name} require {@code requiredName}, reordering the affected tasks if needed.
+     *
+     * @throws CircularDependencyException if {@code requiredName} already depends on {@code name}.
+     */
+    public synchronized void addRequirement(String name, String requiredName) {
+        final int to = idOf(name);
+        final int from = idOf(requiredName);
+        if (hasEdge(from, to)) {
+            return;
+        }
+        if (from == to) {
+            throw new CircularDependencyException("Circular dependency detected: " + name + " requires itself");
+        }
+        if (ord[from] > ord[to]) {
+            reorder(from, to);
+        }
+        link(from, to);
+    }
+
+    public synchronized void removeRequirement(String name, String requiredName) {
+        final int from = idOf(requiredName);
+        final int k = edgeIndex(from, idOf(name));
+        if (k >= 0) {
+            unlink(from, k);
+        }
+    }
+
+    /**
+     * Restores a topological order before inserting {@code from -> to} when {@code to} currently precedes {@code from}.
+     */
+    private void reorder(int from, int to) {
+        final int lowerBound = ord[to];
+        final int upperBound = ord[from];
+
+        // Tasks reachable from 'to' that are not after 'from'; reaching 'from' itself means a cycle.
+        final List<Integer> forward = new ArrayList<>();
+        final Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(to);
+        visited[to] = true;
+        while (!stack.isEmpty()) {
+            final int id = stack.pop();
+            forward.add(id);
+            for (int k = 0; k < dependentsSize[id]; k++) {
+                final int next = dependents[id][k];
+                if (next == from) {
+                    forward.forEach(visited -> this.visited[visited] = false);
+                    stack.forEach(visited -> this.visited[visited] = false);
+                    throw new CircularDependencyException("Circular dependency detected: " + names[from] + " already depends on " + names[to]);
+                }
+                if (!visited[next] && ord[next] < upperBound) {
+                    visited[next] = true;
+                    stack.push(next);
+                }
+            }
+        }
+
+        // Tasks 'from' depends on that are not before 'to'.
+        final List<Integer> backward = new ArrayList<>();
+        stack.push(from);
+        visited[from] = true;
+        while (!stack.isEmpty()) {
+            final int id = stack.pop();
+            backward.add(id);
+            for (int k = 0; k < requiresSize[id]; k++) {
+                final int next = requires[id][k];
+                if (!visited[next] && ord[next] > lowerBound) {
+                    visited[next] = true;
+                    stack.push(next);
+                }
+            }
+        }
+
+        // Reuse the positions of both sets: everything 'from' depends on first, then everything depending on 'to'.
+        final Comparator<Integer> byPosition = Comparator.comparingInt(id -> ord[id]);
+        backward.sort(byPosition);
+        forward.sort(byPosition);
+        final int[] positions = new int[backward.size() + forward.size()];
+        int p = 0;
+        for (int id : backward) {
+            positions[p++] = ord[id];
+        }
+        for (int id : forward) {
+            positions[p++] = ord[id];
+        }
+        Arrays.sort(positions);
+        p = 0;
+        for (int id : backward) {
+            visited[id] = false;
+            place(id, positions[p++]);
+        }
+        for (int id : forward) {
+            visited[id] = false;
+            place(id, positions[p++]);
+        }
+    }
+
+    private void place(int id, int position) {
+        ord[id] = position;
+        node[position] = id;
+    }
+
+    private void compact() {
+        int next = 0;
+        for (int position = 0; position < positionCount; position++) {
+            final int id = node[position];
+            if (id >= 0) {
+                place(id, next++);
+            }
+        }
+        Arrays.fill(node, next, positionCount, -1);
+        positionCount = next;
+    }
+
+    private int idOf(String name) {
+        final Integer id = ids.get(name);
+        if (id == null) {
+            throw new JobProcessingException("Unknown task: " + name);
+        }
+        return id;
+    }
+
+    private int newTask(String name, String command) {
+        final int id;
+        if (freeIds.isEmpty()) {
+            if (idCount == names.length) {
+                growIds();
+            }
+            id = idCount++;
+        } else {
+            id = freeIds.pop();
+        }
+        names[id] = name;
+        commands[id] = command;
+        requires[id] = NO_EDGES;
+        requiresBack[id] = NO_EDGES;
+        requiresSize[id] = 0;
+        dependents[id] = NO_EDGES;
+        dependentsBack[id] = NO_EDGES;
+        dependentsSize[id] = 0;
+        ids.put(name, id);
+
+        if (positionCount == node.length) {
+            node = Arrays.copyOf(node, positionCount * 2);
+        }
+        place(id, positionCount++);
+        return id;
+    }
+
+    private void growIds() {
+        final int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        commands = Arrays.copyOf(commands, capacity);
+        requires = Arrays.copyOf(requires, capacity);
+        requiresBack = Arrays.copyOf(requiresBack, capacity);
+        requiresSize = Arrays.copyOf(requiresSize, capacity);
+        dependents = Arrays.copyOf(dependents, capacity);
+        dependentsBack = Arrays.copyOf(dependentsBack, capacity);
+        dependentsSize = Arrays.copyOf(dependentsSize, capacity);
+        ord = Arrays.copyOf(ord, capacity);
+        visited = Arrays.copyOf(visited, capacity);
+    }
+
+    private boolean hasEdge(int from, int to) {
+        return edgeIndex(from, to) >= 0;
+    }
+
+    /**
+     * @return the position of {@code to} among the dependents of {@code from}, or -1 if there is no such edge.
+     */
+    private int edgeIndex(int from, int to) {
+        // Scan the shorter of the two adjacency lists.
+        if (dependentsSize[from] <= requiresSize[to]) {
+            return indexOf(dependents[from], dependentsSize[from], to);
+        }
+        final int k = indexOf(requires[to], requiresSize[to], from);
+        return k < 0 ? -1 : requiresBack[to][k];
+    }
+
+    private void link(int from, int to) {
+        final int k = dependentsSize[from]++;
+        final int back = requiresSize[to]++;
+        dependents[from] = append(dependents[from], k, to);
+        dependentsBack[from] = append(dependentsBack[from], k, back);
+        requires[to] = append(requires[to], back, from);
+        requiresBack[to] = append(requiresBack[to], back, k);
+        edgeCount++;
+    }
+
+    /**
+     * Removes the edge from {@code from} to its {@code k}-th dependent, moving the last entry of each adjacency list
+     * into the freed slot and repointing the matching entry of the moved edge.
+     */
+    private void unlink(int from, int k) {
+        final int to = dependents[from][k];
+        final int back = dependentsBack[from][k];
+
+        final int lastDependent = --dependentsSize[from];
+        if (k != lastDependent) {
+            final int movedTo = dependents[from][lastDependent];
+            final int movedBack = dependentsBack[from][lastDependent];
+            dependents[from][k] = movedTo;
+            dependentsBack[from][k] = movedBack;
+            requiresBack[movedTo][movedBack] = k;
+        }
+
+        final int lastRequired = --requiresSize[to];
+        if (back != lastRequired) {
+            final int movedFrom = requires[to][lastRequired];
+            final int movedK = requiresBack[to][lastRequired];
+            requires[to][back] = movedFrom;
+            requiresBack[to][back] = movedK;
+            dependentsBack[movedFrom][movedK] = back;
+        }
+
+        edgeCount--;
+    }
+
+    private static int[] append(int[] edges, int size, int id) {
+        if (size == edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(4, size * 2));
+        }
+        edges[size] = id;
+        return edges;
+    }
+
+    private static int indexOf(int[] edges, int size, int id) {
+        for (int k = 0; k < size; k++) {
+            if (edges[k] == id) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
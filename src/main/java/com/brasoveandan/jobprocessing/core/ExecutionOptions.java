@@ -0,0 +1,26 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.time.Duration;
+
+/**
+ * @param maxConcurrency the maximum number of commands of the job running at the same time.
+ * @param failurePolicy  what happens to the remaining tasks when a task fails; fail-fast when null.
+ * @param taskTimeout    how long a command may run before it is killed and counted as failed; unlimited when null.
+ * @param incremental    whether tasks that are up to date, as are all the tasks they require, are not run again;
+ *                       see {@link IncrementalPlanner}.
+ */
+public record ExecutionOptions(int maxConcurrency, FailurePolicy failurePolicy, Duration taskTimeout, boolean incremental) {
+
+    public ExecutionOptions {
+        if (maxConcurrency < 1) {
+            throw new JobProcessingException("maxConcurrency must be positive");
+        }
+        if (failurePolicy == null) {
+            failurePolicy = FailurePolicy.FAIL_FAST;
+        }
+    }
+
+    public ExecutionOptions(int maxConcurrency, FailurePolicy failurePolicy, Duration taskTimeout) {
+        this(maxConcurrency, failurePolicy, taskTimeout, false);
+    }
+}
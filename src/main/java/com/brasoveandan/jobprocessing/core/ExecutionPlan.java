@@ -0,0 +1,14 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.List;
+
+/**
+ * Tasks grouped into dependency levels: every task only requires tasks of earlier levels,
+ * so the tasks of one level can run concurrently.
+ *
+ * @param levels         the levels in execution order.
+ * @param criticalPath   the names of a longest chain of dependent tasks, which bounds the number of levels.
+ * @param maxParallelism the size of the widest level.
+ */
+public record ExecutionPlan(List<List<Task>> levels, List<String> criticalPath, int maxParallelism) {
+}
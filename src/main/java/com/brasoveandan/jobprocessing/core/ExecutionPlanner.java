@@ -0,0 +1,80 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class ExecutionPlanner {
+    private final TasksSorter tasksSorter;
+
+    /**
+     * Groups the tasks into dependency levels: a task's level is the length of the longest chain of tasks
+     * it transitively requires. Tasks are listed in their input order within a level, and ties on the critical
+     * path go to the earliest task, so the plan does not depend on whether the levels are sorted in parallel.
+     *
+     * @param tasks a list of unsorted tasks.
+     * @return the execution plan.
+     * @throws JobValidationException if the tasks have duplicate names, unknown requirements or cycles.
+     */
+    public ExecutionPlan plan(List<Task> tasks) {
+        // Cycles are reported by the level sort, which cannot complete on a cyclic graph.
+        final var builder = new TaskGraph.Builder();
+        for (Task task : tasks) {
+            builder.addTask(task.name(), task.command());
+            if (task.requires() != null) {
+                for (String required : task.requires()) {
+                    builder.addRequirement(task.name(), required);
+                }
+            }
+        }
+        final TaskGraph graph = builder.build();
+        final var sorted = tasksSorter.sortLevels(graph);
+        final int[] order = sorted.order();
+        final int[] starts = sorted.starts();
+
+        final int levelCount = sorted.count();
+        final List<List<Task>> levels = new ArrayList<>(levelCount);
+        int maxParallelism = 0;
+        for (int l = 0; l < levelCount; l++) {
+            final List<Task> level = new ArrayList<>(starts[l + 1] - starts[l]);
+            for (int p = starts[l]; p < starts[l + 1]; p++) {
+                level.add(tasks.get(order[p]));
+            }
+            levels.add(level);
+            maxParallelism = Math.max(maxParallelism, level.size());
+        }
+
+        // The earliest task of the last level, each task preceded by the earliest task of the level before it requires.
+        final List<String> criticalPath = new ArrayList<>(levelCount);
+        int task = levelCount == 0 ? -1 : order[starts[levelCount - 1]];
+        for (int l = levelCount - 1; l >= 0; l--) {
+            criticalPath.add(graph.name(task));
+            if (l > 0) {
+                task = earliestRequirement(graph, order, starts[l - 1], starts[l], task);
+            }
+        }
+
+        log.debug("Planned {} tasks in {} levels, at most {} in parallel.", tasks.size(), levelCount, maxParallelism);
+        return new ExecutionPlan(levels, criticalPath.reversed(), maxParallelism);
+    }
+
+    /**
+     * @return the first task of {@code order[from..to)} that the given task requires.
+     */
+    private static int earliestRequirement(TaskGraph graph, int[] order, int from, int to, int task) {
+        for (int p = from; p < to; p++) {
+            for (int k = graph.dependentsFrom(order[p]), end = graph.dependentsTo(order[p]); k < end; k++) {
+                if (graph.dependent(k) == task) {
+                    return order[p];
+                }
+            }
+        }
+        throw new IllegalStateException("Task " + graph.name(task) + " requires no task of the previous level");
+    }
+}
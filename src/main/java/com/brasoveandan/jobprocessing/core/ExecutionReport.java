@@ -0,0 +1,12 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param succeeded whether every task succeeded or was up to date.
+ * @param duration  the wall-clock time of the whole job.
+ * @param tasks     the outcome of every task, in the order of the job.
+ */
+public record ExecutionReport(boolean succeeded, Duration duration, List<TaskExecution> tasks) {
+}
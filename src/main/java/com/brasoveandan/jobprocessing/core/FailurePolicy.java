@@ -0,0 +1,8 @@
+package com.brasoveandan.jobprocessing.core;
+
+public enum FailurePolicy {
+    /** Skip every task that has not started yet once a task fails. */
+    FAIL_FAST,
+    /** Skip only the tasks that transitively require a failed task. */
+    CONTINUE
+}
@@ -0,0 +1,11 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.List;
+
+/**
+ * @param orderedTasks  the tasks to run, in topological order: those whose fingerprint has not succeeded yet,
+ *                      and everything downstream of them.
+ * @param upToDateTasks the names of the other tasks, which need not run again.
+ */
+public record IncrementalPlan(List<Task> orderedTasks, List<String> upToDateTasks) {
+}
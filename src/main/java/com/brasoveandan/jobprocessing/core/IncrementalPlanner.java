@@ -0,0 +1,99 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leaves out of a job the tasks that need not run again, as incremental build tools do: a task is up to date
+ * when a task with its {@link TaskFingerprints fingerprint} has succeeded before, according to the
+ * {@link TaskResultStore}, and all the tasks it requires are up to date; tasks without a fingerprint never are. Everything downstream of a task
+ * that must run is run again too, so what remains is the dirty part of the job, closed under its dependents.
+ * Only registered when {@code job-processing.memoization.enabled} is true.
+ */
+@Component
+@ConditionalOnProperty(name = "job-processing.memoization.enabled", havingValue = "true")
+public class IncrementalPlanner {
+    public static final String REQUIRES_MEMOIZATION = "Incremental planning requires job-processing.memoization.enabled=true";
+
+    private final TasksSorter tasksSorter;
+    private final TaskResultStore taskResultStore;
+    private final TaskFingerprints taskFingerprints;
+
+    @Autowired
+    public IncrementalPlanner(TasksSorter tasksSorter, TaskResultStore taskResultStore, MemoizationProperties properties) {
+        this(tasksSorter, taskResultStore,
+                new TaskFingerprints(Path.of(properties.inputRoot()), properties.maxInputEntries(), System::getenv));
+    }
+
+    public IncrementalPlanner(TasksSorter tasksSorter, TaskResultStore taskResultStore, TaskFingerprints taskFingerprints) {
+        this.tasksSorter = tasksSorter;
+        this.taskResultStore = taskResultStore;
+        this.taskFingerprints = taskFingerprints;
+    }
+
+    /**
+     * @param tasks  a list of unsorted tasks.
+     * @param policy how ready tasks are ordered among themselves.
+     * @return the tasks that must run, ordered as {@link TasksSorter#sortTasks(List, OrderingPolicy)} would,
+     * and the up-to-date ones.
+     * @throws JobValidationException if the tasks have duplicate names, unknown requirements, cycles or invalid inputs.
+     */
+    public IncrementalPlan plan(List<Task> tasks, OrderingPolicy policy) {
+        final Freshness freshness = freshness(tasks, JobValidator.validate(tasks));
+        // Any topological order of the job, restricted to some of its tasks, is one of theirs.
+        final int[] order = policy == OrderingPolicy.INPUT ? freshness.order() : tasksSorter.sortIndices(tasks, policy);
+        final List<Task> orderedTasks = new ArrayList<>();
+        final List<String> upToDateTasks = new ArrayList<>();
+        for (int i : order) {
+            if (freshness.upToDate()[i]) {
+                upToDateTasks.add(tasks.get(i).name());
+            } else {
+                orderedTasks.add(tasks.get(i));
+            }
+        }
+        return new IncrementalPlan(orderedTasks, upToDateTasks);
+    }
+
+    void recordSuccess(String fingerprint, TaskExecution execution) {
+        taskResultStore.recordSuccess(fingerprint, execution);
+    }
+
+    /**
+     * @param tasks the tasks of a valid job.
+     * @param graph their dependency graph.
+     */
+    Freshness freshness(List<Task> tasks, TaskGraph graph) {
+        final int[] order = tasksSorter.sortGraph(graph);
+        final String[] fingerprints = taskFingerprints.of(tasks, graph, order);
+        // In topological order, so that whether a task is dirty is settled before its dependents are looked at.
+        final boolean[] dirty = new boolean[graph.size()];
+        for (int task : order) {
+            if (!dirty[task] && (fingerprints[task] == null || !taskResultStore.hasSucceeded(fingerprints[task]))) {
+                dirty[task] = true;
+            }
+            if (dirty[task]) {
+                for (int k = graph.dependentsFrom(task), end = graph.dependentsTo(task); k < end; k++) {
+                    dirty[graph.dependent(k)] = true;
+                }
+            }
+        }
+        final boolean[] upToDate = new boolean[graph.size()];
+        for (int i = 0; i < upToDate.length; i++) {
+            upToDate[i] = !dirty[i];
+        }
+        return new Freshness(order, fingerprints, upToDate);
+    }
+
+    /**
+     * @param order        the task indices in topological order.
+     * @param fingerprints the fingerprint of every task, by index; null for the tasks that declare nothing.
+     * @param upToDate     whether every task, by index, need not run again.
+     */
+    record Freshness(int[] order, String[] fingerprints, boolean[] upToDate) {
+    }
+}
@@ -4,5 +4,26 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
-public record Job(@JsonProperty("tasks") List<Task> tasks) {
+/**
+ * @param ordering how ready tasks are ordered among themselves; {@link OrderingPolicy#INPUT} when missing.
+ * @param targets  the names of the tasks to order along with every task they transitively require;
+ *                 the whole job when missing or empty.
+ */
+public record Job(@JsonProperty("tasks") List<Task> tasks,
+                  @JsonProperty("ordering") OrderingPolicy ordering,
+                  @JsonProperty("targets") List<String> targets) {
+
+    public Job {
+        if (ordering == null) {
+            ordering = OrderingPolicy.INPUT;
+        }
+    }
+
+    public Job(List<Task> tasks) {
+        this(tasks, null, null);
+    }
+
+    public Job(List<Task> tasks, OrderingPolicy ordering) {
+        this(tasks, ordering, null);
+    }
 }
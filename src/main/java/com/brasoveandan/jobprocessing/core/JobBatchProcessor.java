@@ -0,0 +1,95 @@
+package com.brasoveandan.jobprocessing.core;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Sorts the jobs of a batch in parallel on a work-stealing fork-join pool shared by all batches.
+ * A failing job, such as one with a cycle, only fails its own result.
+ */
+@Log4j2
+@Component
+@EnableConfigurationProperties(JobBatchProperties.class)
+public class JobBatchProcessor {
+    private final JobProcessorService jobProcessorService;
+    private final JobResultCache jobResultCache;
+    private final JobBatchProperties properties;
+    private final ForkJoinPool pool;
+
+    public JobBatchProcessor(JobProcessorService jobProcessorService, JobResultCache jobResultCache, JobBatchProperties properties) {
+        this.jobProcessorService = jobProcessorService;
+        this.jobResultCache = jobResultCache;
+        this.properties = properties;
+        final int parallelism = properties.parallelism() > 0 ? properties.parallelism() : Runtime.getRuntime().availableProcessors();
+        // Async mode: independent jobs are taken in submission order rather than LIFO.
+        this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Sorts the jobs and hands each result to the sink, on the calling thread, as soon as it completes.
+     *
+     * @param jobs the jobs of the batch.
+     * @param sink receives one result per job, in completion order.
+     * @throws BatchTooLargeException if the batch has more than {@code max-jobs} jobs.
+     * @throws IOException            if the sink fails; the jobs not started yet are then cancelled.
+     */
+    public void process(List<Job> jobs, ResultSink sink) throws IOException {
+        checkSize(jobs);
+        final var completion = new ExecutorCompletionService<JobBatchResult>(pool);
+        final List<Future<JobBatchResult>> futures = new ArrayList<>(jobs.size());
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                final int index = i;
+                futures.add(completion.submit(() -> sort(index, jobs.get(index))));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                sink.accept(completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobProcessingException("Interrupted while sorting the batch", e);
+        } catch (ExecutionException e) {
+            throw new JobProcessingException("Unexpected failure while sorting the batch", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+        log.debug("Sorted a batch of {} jobs.", jobs.size());
+    }
+
+    /**
+     * @throws BatchTooLargeException if the batch has more than {@code max-jobs} jobs.
+     */
+    public void checkSize(List<Job> jobs) {
+        if (jobs.size() > properties.maxJobs()) {
+            throw new BatchTooLargeException("Batch of " + jobs.size() + " jobs exceeds the maximum of " + properties.maxJobs());
+        }
+    }
+
+    private JobBatchResult sort(int index, Job job) {
+        try {
+            if (job == null) {
+                throw new JobProcessingException("Missing job");
+            }
+            return new JobBatchResult(index, jobResultCache.get(job, jobProcessorService::orderTasks).orderedTasks(), null);
+        } catch (RuntimeException e) {
+            return new JobBatchResult(index, null, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(JobBatchResult result) throws IOException;
+    }
+}
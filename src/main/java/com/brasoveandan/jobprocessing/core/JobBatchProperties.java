@@ -0,0 +1,13 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param parallelism the number of threads sorting the jobs of batches, or 0 for one per available processor.
+ * @param maxJobs     the maximum number of jobs in one batch.
+ */
+@ConfigurationProperties("job-processing.batch")
+public record JobBatchProperties(@DefaultValue("0") int parallelism,
+                                 @DefaultValue("10000") int maxJobs) {
+}
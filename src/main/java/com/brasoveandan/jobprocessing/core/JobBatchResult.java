@@ -0,0 +1,16 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * The outcome of one job of a batch: either its ordered tasks or the error that stopped it.
+ *
+ * @param index        the position of the job in the batch.
+ * @param orderedTasks the ordered tasks, if the job succeeded.
+ * @param error        the error message, if the job failed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JobBatchResult(int index, List<Task> orderedTasks, String error) {
+}
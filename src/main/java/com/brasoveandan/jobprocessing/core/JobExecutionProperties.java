@@ -0,0 +1,15 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled        whether the execution endpoint is exposed; it runs arbitrary commands on this host.
+ * @param maxConcurrency the maximum number of commands running at the same time across all jobs.
+ * @param shell          the shell each command is passed to with {@code -c}.
+ */
+@ConfigurationProperties("job-processing.execution")
+public record JobExecutionProperties(@DefaultValue("false") boolean enabled,
+                                     @DefaultValue("256") int maxConcurrency,
+                                     @DefaultValue("bash") String shell) {
+}
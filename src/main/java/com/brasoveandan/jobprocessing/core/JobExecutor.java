@@ -0,0 +1,242 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs the commands of a job, each one as soon as all the tasks it requires have succeeded.
+ * <p>
+ * Every task runs on its own virtual thread; the number of commands running at the same time is bounded
+ * per job by {@link ExecutionOptions#maxConcurrency()} and across jobs by
+ * {@code job-processing.execution.max-concurrency}. An {@link ExecutionOptions#incremental() incremental} run
+ * does not run up-to-date tasks, which count as succeeded, and records the fingerprint of every task that succeeds.
+ */
+@Log4j2
+@Component
+@EnableConfigurationProperties(JobExecutionProperties.class)
+public class JobExecutor {
+    private final String shell;
+    private final Semaphore globalPermits;
+    private final IncrementalPlanner incrementalPlanner;
+
+    public JobExecutor(JobExecutionProperties properties) {
+        this(properties, (IncrementalPlanner) null);
+    }
+
+    @Autowired
+    public JobExecutor(JobExecutionProperties properties, ObjectProvider<IncrementalPlanner> incrementalPlanner) {
+        this(properties, incrementalPlanner.getIfAvailable());
+    }
+
+    public JobExecutor(JobExecutionProperties properties, IncrementalPlanner incrementalPlanner) {
+        this.shell = properties.shell();
+        this.globalPermits = new Semaphore(properties.maxConcurrency(), true);
+        this.incrementalPlanner = incrementalPlanner;
+    }
+
+    /**
+     * Runs the tasks and waits until every task has either run or been skipped.
+     *
+     * @param tasks   a list of unsorted tasks.
+     * @param options the limits and failure policy of this run.
+     * @return the outcome of every task.
+     */
+    public ExecutionReport execute(List<Task> tasks, ExecutionOptions options) {
+        // Reject invalid jobs before starting anything.
+        final TaskGraph graph = JobValidator.validate(tasks);
+        if (options.incremental() && !supportsIncremental()) {
+            throw new JobProcessingException(IncrementalPlanner.REQUIRES_MEMOIZATION);
+        }
+
+        final long start = System.nanoTime();
+        final var run = new Run(graph, options, options.incremental() ? incrementalPlanner.freshness(tasks, graph) : null);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            run.executor = executor;
+            for (int i = 0; i < graph.size(); i++) {
+                if (graph.inDegree(i) == 0) {
+                    run.submit(i);
+                }
+            }
+            run.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobProcessingException("Interrupted while executing the job", e);
+        }
+
+        final boolean succeeded = Arrays.stream(run.results).allMatch(JobExecutor::succeeded);
+        log.debug("Executed {} tasks, succeeded: {}.", graph.size(), succeeded);
+        return new ExecutionReport(succeeded, Duration.ofNanos(System.nanoTime() - start), List.of(run.results));
+    }
+
+    /**
+     * @return whether {@link ExecutionOptions#incremental() incremental} runs are possible, which requires
+     * {@code job-processing.memoization.enabled}.
+     */
+    public boolean supportsIncremental() {
+        return incrementalPlanner != null;
+    }
+
+    private static boolean succeeded(TaskExecution result) {
+        return result.status() == TaskStatus.SUCCEEDED || result.status() == TaskStatus.UP_TO_DATE;
+    }
+
+    /**
+     * The state of one execution: a task is started when the count of its unfinished requirements drops to zero,
+     * or skipped at that point if one of them failed or was skipped.
+     */
+    private final class Run {
+        private final TaskGraph graph;
+        private final ExecutionOptions options;
+        private final AtomicIntegerArray remaining;
+        // Written before the dependent's countdown, read by the thread that takes the countdown to zero.
+        private final boolean[] blocked;
+        private final TaskExecution[] results;
+        private final Semaphore jobPermits;
+        private final AtomicBoolean aborted = new AtomicBoolean();
+        private final CountDownLatch done;
+        // Null unless the run is incremental.
+        private final IncrementalPlanner.Freshness freshness;
+        private ExecutorService executor;
+
+        private Run(TaskGraph graph, ExecutionOptions options, IncrementalPlanner.Freshness freshness) {
+            this.graph = graph;
+            this.options = options;
+            this.freshness = freshness;
+            this.remaining = new AtomicIntegerArray(graph.inDegrees());
+            this.blocked = new boolean[graph.size()];
+            this.results = new TaskExecution[graph.size()];
+            this.jobPermits = new Semaphore(options.maxConcurrency(), true);
+            this.done = new CountDownLatch(graph.size());
+        }
+
+        private void submit(int task) {
+            executor.execute(() -> {
+                TaskExecution result;
+                try {
+                    result = run(task);
+                } catch (RuntimeException e) {
+                    // The task must still complete, or the job would wait for it forever.
+                    log.warn("Task {} failed unexpectedly.", graph.name(task), e);
+                    result = TaskExecution.failed(graph.name(task));
+                }
+                complete(task, result);
+            });
+        }
+
+        private TaskExecution run(int task) {
+            if (freshness != null && freshness.upToDate()[task]) {
+                return TaskExecution.upToDate(graph.name(task));
+            }
+            final TaskExecution result = aborted.get() ? TaskExecution.skipped(graph.name(task)) : runWithPermits(task);
+            if (freshness != null && result.status() == TaskStatus.SUCCEEDED && freshness.fingerprints()[task] != null) {
+                recordSuccess(task, result);
+            }
+            return result;
+        }
+
+        private void recordSuccess(int task, TaskExecution result) {
+            try {
+                incrementalPlanner.recordSuccess(freshness.fingerprints()[task], result);
+            } catch (UncheckedIOException e) {
+                log.warn("Task {} succeeded but could not be recorded; it will run again.", graph.name(task), e);
+            }
+        }
+
+        private TaskExecution runWithPermits(int task) {
+            try {
+                jobPermits.acquire();
+                try {
+                    globalPermits.acquire();
+                    try {
+                        return aborted.get() ? TaskExecution.skipped(graph.name(task)) : runCommand(task);
+                    } finally {
+                        globalPermits.release();
+                    }
+                } finally {
+                    jobPermits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return TaskExecution.skipped(graph.name(task));
+            }
+        }
+
+        private TaskExecution runCommand(int task) throws InterruptedException {
+            final String name = graph.name(task);
+            final Instant startedAt = Instant.now();
+            final long start = System.nanoTime();
+            Integer exitCode = null;
+            try {
+                final Process process = new ProcessBuilder(shell, "-c", graph.command(task))
+                        .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                process.getOutputStream().close();
+                // onExit() parks the virtual thread, whereas Process.waitFor() would pin its carrier.
+                final CompletableFuture<Process> exit = process.onExit();
+                try {
+                    exitCode = (options.taskTimeout() == null ? exit.get()
+                            : exit.get(options.taskTimeout().toNanos(), TimeUnit.NANOSECONDS)).exitValue();
+                } catch (TimeoutException e) {
+                    log.warn("Task {} timed out after {}.", name, options.taskTimeout());
+                    // The shell's children would otherwise outlive it.
+                    process.descendants().forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                }
+            } catch (IOException | ExecutionException | RuntimeException e) {
+                log.warn("Task {} could not be run.", name, e);
+            }
+            final var duration = Duration.ofNanos(System.nanoTime() - start);
+            final var status = exitCode != null && exitCode == 0 ? TaskStatus.SUCCEEDED : TaskStatus.FAILED;
+            log.debug("Task {} {} with exit code {} in {}.", name, status, exitCode, duration);
+            return new TaskExecution(name, status, exitCode, startedAt, duration);
+        }
+
+        private void complete(int task, TaskExecution result) {
+            if (result.status() == TaskStatus.FAILED && options.failurePolicy() == FailurePolicy.FAIL_FAST) {
+                aborted.set(true);
+            }
+            // Skips are propagated iteratively: a failure at the head of a long chain must not overflow the stack.
+            final Deque<Integer> skippedTasks = new ArrayDeque<>();
+            record(task, result, skippedTasks);
+            while (!skippedTasks.isEmpty()) {
+                final int skippedTask = skippedTasks.pop();
+                record(skippedTask, TaskExecution.skipped(graph.name(skippedTask)), skippedTasks);
+            }
+        }
+
+        private void record(int task, TaskExecution result, Deque<Integer> skippedTasks) {
+            results[task] = result;
+            final boolean succeeded = succeeded(result);
+            for (int k = graph.dependentsFrom(task), end = graph.dependentsTo(task); k < end; k++) {
+                final int dependentTask = graph.dependent(k);
+                if (!succeeded) {
+                    blocked[dependentTask] = true;
+                }
+                if (remaining.decrementAndGet(dependentTask) == 0) {
+                    if (blocked[dependentTask]) {
+                        skippedTasks.push(dependentTask);
+                    } else {
+                        submit(dependentTask);
+                    }
+                }
+            }
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxGraphs        the maximum number of job graphs kept; the least recently used ones are dropped first.
+ * @param maxTasksAndEdges the maximum number of tasks and edges kept across all job graphs; the least recently used
+ *                         graphs are dropped first, and a job larger than that is rejected.
+ * @param ttl              how long a job graph is kept after it was last read or patched.
+ */
+@ConfigurationProperties("job-processing.graphs")
+public record JobGraphProperties(@DefaultValue("1000") int maxGraphs,
+                                 @DefaultValue("1000000") long maxTasksAndEdges,
+                                 @DefaultValue("1h") Duration ttl) {
+}
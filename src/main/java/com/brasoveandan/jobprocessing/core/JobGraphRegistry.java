@@ -0,0 +1,101 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the job graphs created through {@code /api/graphs}, so that a job changing by a few tasks is patched
+ * and re-sorted incrementally instead of being submitted and sorted again from scratch.
+ * <p>
+ * The graphs are bounded both in number and in total tasks and edges: each graph weighs its tasks and edges, but
+ * at least the share of a single graph, so that neither many small graphs nor a few large ones exceed the bounds.
+ * A graph is weighed again after each patch, and a patch that would grow it beyond the bound of all graphs is rejected.
+ */
+@Log4j2
+@Component
+@EnableConfigurationProperties(JobGraphProperties.class)
+public class JobGraphRegistry {
+    private final TasksSorter tasksSorter;
+    private final long maxTasksAndEdges;
+    private final Cache<String, DynamicTaskGraph> graphs;
+
+    public JobGraphRegistry(TasksSorter tasksSorter, JobGraphProperties properties) {
+        this.tasksSorter = tasksSorter;
+        this.maxTasksAndEdges = properties.maxTasksAndEdges();
+        final long minWeight = Math.max(1, Math.ceilDiv(maxTasksAndEdges, Math.max(1, properties.maxGraphs())));
+        this.graphs = Caffeine.newBuilder()
+                .maximumWeight(maxTasksAndEdges)
+                .<String, DynamicTaskGraph>weigher((id, graph) -> (int) Math.min(Integer.MAX_VALUE,
+                        Math.max(minWeight, (long) graph.size() + graph.edgeCount())))
+                .expireAfterAccess(properties.ttl())
+                // Evicts on the calling thread, so that the graphs are within bounds once a request returns.
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Sorts the job once and keeps its graph.
+     *
+     * @param job the job.
+     * @return the status of the new graph.
+     * @throws JobValidationException if the job is invalid.
+     * @throws JobProcessingException   if the job has more tasks and edges than all graphs may hold.
+     */
+    public JobGraphStatus create(Job job) {
+        final List<Task> tasks = job.tasks() == null ? List.of() : job.tasks();
+        final TaskGraph taskGraph = JobValidator.validate(tasks);
+        checkSize((long) taskGraph.size() + taskGraph.edgeCount());
+        final var graph = DynamicTaskGraph.of(tasks, tasksSorter.sortGraph(taskGraph));
+        final String id = UUID.randomUUID().toString();
+        graphs.put(id, graph);
+        log.debug("Created job graph {} with {} tasks.", id, graph.size());
+        return status(id, graph);
+    }
+
+    public Optional<DynamicTaskGraph> get(String id) {
+        return Optional.ofNullable(graphs.getIfPresent(id));
+    }
+
+    /**
+     * Applies a change to a graph and weighs it again.
+     *
+     * @param id     the graph id.
+     * @param growth the most tasks and edges the change adds.
+     * @param change the change, which may throw a {@link JobProcessingException} to reject it.
+     * @return the status of the changed graph, or empty if there is no such graph.
+     * @throws JobProcessingException if the graph could grow to more tasks and edges than all graphs may hold;
+     *                                it is then unchanged.
+     */
+    public Optional<JobGraphStatus> patch(String id, long growth, Consumer<DynamicTaskGraph> change) {
+        final DynamicTaskGraph graph = graphs.asMap().computeIfPresent(id, (key, current) -> {
+            if (growth > 0) {
+                checkSize((long) current.size() + current.edgeCount() + growth);
+            }
+            change.accept(current);
+            return current;
+        });
+        return Optional.ofNullable(graph).map(patched -> status(id, patched));
+    }
+
+    private void checkSize(long tasksAndEdges) {
+        if (tasksAndEdges > maxTasksAndEdges) {
+            throw new JobProcessingException("Job graph too large: more than " + maxTasksAndEdges + " tasks and edges");
+        }
+    }
+
+    public boolean delete(String id) {
+        return graphs.asMap().remove(id) != null;
+    }
+
+    public static JobGraphStatus status(String id, DynamicTaskGraph graph) {
+        return new JobGraphStatus(id, graph.size(), graph.edgeCount());
+    }
+}
@@ -0,0 +1,7 @@
+package com.brasoveandan.jobprocessing.core;
+
+/**
+ * Summary of a job graph, returned when it is created or patched.
+ */
+public record JobGraphStatus(String id, int taskCount, int edgeCount) {
+}
@@ -0,0 +1,85 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Canonical content hash of a job: two jobs hash the same when they have the same tasks, ordering policy and
+ * targets, whatever the order of their {@code requires} and {@code targets} lists. The order of the tasks is hashed
+ * too, since every policy but {@link OrderingPolicy#NAME} breaks ties by position in the job.
+ */
+public final class JobHasher {
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private JobHasher() {
+    }
+
+    /**
+     * @param job a job.
+     * @return the hex-encoded SHA-256 of the canonical form of the job.
+     */
+    public static String hash(Job job) {
+        final List<Task> tasks = new ArrayList<>(job.tasks() == null ? List.of() : job.tasks());
+        if (job.ordering() == OrderingPolicy.NAME) {
+            tasks.sort(Comparator.comparing(Task::name, NAME_ORDER));
+        }
+
+        final MessageDigest digest = sha256();
+        update(digest, job.ordering().name());
+        update(digest, tasks.size());
+        for (Task task : tasks) {
+            update(digest, task.name());
+            update(digest, task.command());
+            update(digest, task.priority() == null ? 0 : task.priority());
+            update(digest, task.estimatedDuration() == null ? 0 : task.estimatedDuration());
+            final List<String> requires = task.requires() == null ? new ArrayList<>() : new ArrayList<>(task.requires());
+            requires.sort(NAME_ORDER);
+            update(digest, requires.size());
+            for (String required : requires) {
+                update(digest, required);
+            }
+        }
+        if (job.targets() != null && !job.targets().isEmpty()) {
+            // Hashed last and only when set, so that jobs without targets keep their hashes.
+            final List<String> targets = new ArrayList<>(new HashSet<>(job.targets()));
+            targets.sort(NAME_ORDER);
+            update(digest, targets.size());
+            for (String target : targets) {
+                update(digest, target);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            update(digest, -1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void update(MessageDigest digest, long value) {
+        update(digest, (int) (value >>> 32));
+        update(digest, (int) value);
+    }
+
+    private static void update(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
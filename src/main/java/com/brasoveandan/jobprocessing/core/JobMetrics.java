@@ -0,0 +1,76 @@
+package com.brasoveandan.jobprocessing.core;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the job processing hot path:
+ * <ul>
+ *     <li>{@code job.sort}: time spent sorting a job, successful or not;</li>
+ *     <li>{@code job.serialization}: time spent rendering a result, tagged with its {@code format};</li>
+ *     <li>{@code job.tasks} and {@code job.edges}: the size of the sorted jobs;</li>
+ *     <li>{@code job.cycles}: the jobs rejected because of a circular dependency.</li>
+ * </ul>
+ */
+@Component
+public class JobMetrics {
+    private final MeterRegistry registry;
+    private final Timer sortTimer;
+    private final DistributionSummary tasks;
+    private final DistributionSummary edges;
+    private final Counter cycles;
+
+    public JobMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.sortTimer = Timer.builder("job.sort")
+                .description("Time spent sorting the tasks of a job")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.tasks = DistributionSummary.builder("job.tasks")
+                .description("Number of tasks of the sorted jobs")
+                .baseUnit("tasks")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.edges = DistributionSummary.builder("job.edges")
+                .description("Number of requires edges of the sorted jobs")
+                .baseUnit("edges")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.cycles = Counter.builder("job.cycles")
+                .description("Jobs rejected because of a circular dependency")
+                .register(registry);
+    }
+
+    /**
+     * Records the size of a job and starts timing its sort.
+     */
+    public Timer.Sample startSort(int taskCount, long edgeCount) {
+        tasks.record(taskCount);
+        edges.record(edgeCount);
+        return Timer.start(registry);
+    }
+
+    public void stopSort(Timer.Sample sample, Throwable failure) {
+        sample.stop(sortTimer);
+        if (failure instanceof CircularDependencyException) {
+            cycles.increment();
+        }
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * @param format the rendered format, such as {@code json} or {@code script}.
+     */
+    public Timer serialization(String format) {
+        return Timer.builder("job.serialization")
+                .description("Time spent rendering the result of a job")
+                .tag("format", format)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds {@link JobMetrics} from the sorter and the renderers, so they stay free of metrics code.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class JobMetricsAspect {
+    private final JobMetrics jobMetrics;
+
+    /**
+     * Times every public sort of {@link TasksSorter}, {@link TasksSorter#sortLevels(TaskGraph)} for the execution plans included.
+     */
+    @Around("execution(public * com.brasoveandan.jobprocessing.core.TasksSorter.sort*(..))")
+    public Object timeSort(ProceedingJoinPoint joinPoint) throws Throwable {
+        final var sample = switch (joinPoint.getArgs()[0]) {
+            case TaskGraph graph -> jobMetrics.startSort(graph.size(), graph.edgeCount());
+            case List<?> tasks -> jobMetrics.startSort(tasks.size(), edgeCount(tasks));
+            case null, default -> jobMetrics.startSort(0, 0);
+        };
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            jobMetrics.stopSort(sample, failure);
+        }
+    }
+
+    @Around("execution(public String com.brasoveandan.jobprocessing.core.JobProcessorService.generate*BashScript(..))"
+            + " || execution(public byte[] com.brasoveandan.jobprocessing.core.JobProcessorService.renderBashScript(..))"
+            + " || execution(public void com.brasoveandan.jobprocessing.core.JobStreamProcessor.write*(..))")
+    public Object timeSerialization(ProceedingJoinPoint joinPoint) throws Throwable {
+        final String method = joinPoint.getSignature().getName();
+        final String format = method.endsWith("OrderedTasks") ? "json" : "script";
+        final var sample = jobMetrics.startTimer();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(jobMetrics.serialization(format));
+        }
+    }
+
+    private static long edgeCount(List<?> tasks) {
+        long edgeCount = 0;
+        for (Object task : tasks) {
+            if (task instanceof Task t && t.requires() != null) {
+                edgeCount += t.requires().size();
+            }
+        }
+        return edgeCount;
+    }
+}
@@ -1,13 +1,20 @@
 package com.brasoveandan.jobprocessing.core;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class JobProcessorService {
+    public static final String BASH_SCRIPT_HEADER = "#!/usr/bin/env bash \n";
+    /** The content type of the UTF-8 encoded bash scripts. */
+    public static final MediaType BASH_SCRIPT_TYPE = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final byte[] BASH_SCRIPT_HEADER_BYTES = BASH_SCRIPT_HEADER.getBytes(StandardCharsets.UTF_8);
+
     private final TasksSorter tasksSorter;
 
     /**
@@ -15,7 +22,7 @@ public class JobProcessorService {
      * @return a list of ordered tasks
      */
     public List<Task> orderTasks(Job job) {
-        return tasksSorter.sortTasks(job.tasks());
+        return tasksSorter.sortTasks(job.tasks(), job.ordering(), job.targets());
     }
 
     /**
@@ -25,9 +32,83 @@ public class JobProcessorService {
      * @return a bash script.
      */
     public String generateBashScript(List<Task> orderedTasks) {
-        final var bashScript = new StringBuilder("#!/usr/bin/env bash \n");
+        return new String(renderBashScript(orderedTasks), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders the same bash script as {@link #generateBashScript(List)} straight to UTF-8, encoding every command
+     * in place. The script is sized from the command lengths, which is exact for ASCII commands; it only grows,
+     * and is trimmed once written, when commands have multi-byte characters.
+     *
+     * @param orderedTasks a list of sorted tasks.
+     * @return the UTF-8 bytes of the bash script.
+     */
+    public byte[] renderBashScript(List<Task> orderedTasks) {
+        long length = BASH_SCRIPT_HEADER_BYTES.length;
+        for (Task task : orderedTasks) {
+            length += String.valueOf(task.command()).length() + 1;
+        }
+
+        byte[] bashScript = new byte[checkedLength(length)];
+        System.arraycopy(BASH_SCRIPT_HEADER_BYTES, 0, bashScript, 0, BASH_SCRIPT_HEADER_BYTES.length);
+        int position = BASH_SCRIPT_HEADER_BYTES.length;
+        long remaining = length - position;
         for (Task task : orderedTasks) {
-            bashScript.append(task.command()).append("\n");
+            final String command = String.valueOf(task.command());
+            remaining -= command.length() + 1;
+            final int end = Utf8.encodeAscii(command, bashScript, position);
+            if (end >= 0) {
+                position = end;
+            } else {
+                final int commandLength = Utf8.length(command);
+                if (bashScript.length - position - remaining < commandLength + 1) {
+                    bashScript = Arrays.copyOf(bashScript, checkedLength(position + commandLength + 1 + remaining + (remaining >> 3)));
+                }
+                position = Utf8.encode(command, bashScript, position);
+            }
+            bashScript[position++] = '\n';
+        }
+        return position == bashScript.length ? bashScript : Arrays.copyOf(bashScript, position);
+    }
+
+    private static int checkedLength(long length) {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new JobProcessingException("Bash script too large: " + length + " bytes");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Returns a bash script running the tasks of each level concurrently, at most {@code -j} at a time,
+     * and waiting for a level to finish before starting the next one. The script stops after a level
+     * in which a task failed, and refuses a {@code -j} that is not a positive integer.
+     *
+     * @param plan    the execution plan of a job.
+     * @param maxJobs the default of the script's {@code -j} option, at least 1; the number of processors when null.
+     * @return a bash script.
+     */
+    public String generateParallelBashScript(ExecutionPlan plan, Integer maxJobs) {
+        final var bashScript = new StringBuilder(BASH_SCRIPT_HEADER)
+                .append("max_jobs=").append(maxJobs == null ? "$(nproc)" : maxJobs).append("\n")
+                .append("""
+                        while getopts "j:" opt; do
+                          case "$opt" in
+                            j) [[ "$OPTARG" =~ ^[1-9][0-9]*$ ]] || { echo "usage: $0 [-j max_jobs]" >&2; exit 2; }
+                               max_jobs="$OPTARG" ;;
+                            *) echo "usage: $0 [-j max_jobs]" >&2; exit 2 ;;
+                          esac
+                        done
+                        failed=0
+                        throttle() { while (( $(jobs -pr | wc -l) >= max_jobs )); do wait -n || failed=1; done; }
+                        wait_level() { while [[ -n "$(jobs -p)" ]]; do wait -n || failed=1; done; (( failed == 0 )) || exit 1; }
+                        """);
+        final var levels = plan.levels();
+        for (int level = 0; level < levels.size(); level++) {
+            bashScript.append("# Level ").append(level + 1).append('\n');
+            for (Task task : levels.get(level)) {
+                bashScript.append("throttle; { ").append(task.command()).append("\n} &\n");
+            }
+            bashScript.append("wait_level\n");
         }
         return bashScript.toString();
     }
@@ -0,0 +1,10 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Thrown when an asynchronous job is not accepted because the queue, or the submitting client's share of it, is full.
+ */
+@StandardException
+public class JobRejectedException extends JobProcessingException {
+}
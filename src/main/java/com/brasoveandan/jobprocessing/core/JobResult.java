@@ -0,0 +1,92 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * The ordered tasks of a job together with their rendered responses, which are computed on first use
+ * and kept for as long as the result is cached.
+ */
+public final class JobResult {
+    // Rough heap footprint of a task and of its strings besides their characters.
+    private static final int TASK_OVERHEAD = 128;
+
+    private final List<Task> orderedTasks;
+    private final long tasksSize;
+    private volatile byte[] bashScript;
+    private volatile byte[] gzippedBashScript;
+    private volatile byte[] json;
+    private volatile Runnable renderListener = () -> {
+    };
+
+    public JobResult(List<Task> orderedTasks) {
+        this.orderedTasks = List.copyOf(orderedTasks);
+        long size = 0;
+        for (Task task : this.orderedTasks) {
+            size += TASK_OVERHEAD + length(task.name()) + length(task.command());
+            if (task.requires() != null) {
+                for (String required : task.requires()) {
+                    size += length(required);
+                }
+            }
+        }
+        this.tasksSize = size;
+    }
+
+    public List<Task> orderedTasks() {
+        return orderedTasks;
+    }
+
+    /**
+     * @return the approximate number of bytes held by the ordered tasks and the responses rendered so far.
+     */
+    public long size() {
+        return tasksSize + length(bashScript) + length(gzippedBashScript) + length(json);
+    }
+
+    /**
+     * @param listener run after a response was rendered and kept, so that the result can be weighed again.
+     */
+    void onRender(Runnable listener) {
+        renderListener = listener;
+    }
+
+    public byte[] bashScript(Function<List<Task>, byte[]> renderer) {
+        byte[] script = bashScript;
+        if (script == null) {
+            script = renderer.apply(orderedTasks);
+            bashScript = script;
+            renderListener.run();
+        }
+        return script;
+    }
+
+    public byte[] gzippedBashScript(Function<List<Task>, byte[]> renderer, UnaryOperator<byte[]> compressor) {
+        byte[] script = gzippedBashScript;
+        if (script == null) {
+            script = compressor.apply(bashScript(renderer));
+            gzippedBashScript = script;
+            renderListener.run();
+        }
+        return script;
+    }
+
+    public byte[] json(Function<List<Task>, byte[]> renderer) {
+        byte[] bytes = json;
+        if (bytes == null) {
+            bytes = renderer.apply(orderedTasks);
+            json = bytes;
+            renderListener.run();
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+}
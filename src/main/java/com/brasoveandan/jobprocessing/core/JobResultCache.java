@@ -0,0 +1,90 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of job results keyed by {@link JobHasher#hash(Job)}, so that resubmitting a job skips
+ * both sorting and rendering. Entries are weighed by their {@link JobResult#size() size}, again whenever a response
+ * is rendered, and expire after the configured TTL;
+ * hit, miss and eviction counts are published as the {@code cache.*} metrics of the {@code jobResults} cache.
+ * When the {@link JobStore} is enabled, misses are looked up there before sorting, and computed orders are stored.
+ */
+@Log4j2
+@Component
+@EnableConfigurationProperties(JobResultCacheProperties.class)
+public class JobResultCache {
+    private final JobResultCacheProperties properties;
+    private final Cache<String, JobResult> cache;
+    private final JobStore jobStore;
+
+    public JobResultCache(JobResultCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+                          ObjectProvider<JobStore> jobStore) {
+        this.properties = properties;
+        this.jobStore = jobStore.getIfAvailable();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher((String hash, JobResult result) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, result.size())))
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                // Evict on the calling thread so the weight bound holds as soon as a result is added.
+                .executor(Runnable::run)
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "jobResults"));
+    }
+
+    /**
+     * @param job    a job.
+     * @param sorter computes the ordered tasks of the job on a cache miss.
+     * @return the cached or freshly computed result of the job.
+     */
+    public JobResult get(Job job, Function<Job, List<Task>> sorter) {
+        if (!properties.enabled()) {
+            return jobStore == null ? new JobResult(sorter.apply(job)) : load(JobHasher.hash(job), job, sorter);
+        }
+        final String hash = JobHasher.hash(job);
+        return cache.get(hash, key -> {
+            log.debug("Cache miss for job {}.", key);
+            final JobResult result = load(key, job, sorter);
+            result.onRender(() -> cache.asMap().replace(key, result, result));
+            return result;
+        });
+    }
+
+    private JobResult load(String hash, Job job, Function<Job, List<Task>> sorter) {
+        if (jobStore == null) {
+            return new JobResult(sorter.apply(job));
+        }
+        try {
+            final Optional<List<Task>> stored = jobStore.find(hash);
+            if (stored.isPresent()) {
+                return new JobResult(stored.get());
+            }
+        } catch (UncheckedIOException | JobProcessingException e) {
+            log.warn("Cannot read job {} from the job store.", hash, e);
+        }
+        final List<Task> orderedTasks = sorter.apply(job);
+        try {
+            jobStore.append(hash, orderedTasks);
+        } catch (UncheckedIOException e) {
+            log.warn("Cannot write job {} to the job store.", hash, e);
+        }
+        return new JobResult(orderedTasks);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
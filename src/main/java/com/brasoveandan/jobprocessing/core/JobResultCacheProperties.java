@@ -0,0 +1,20 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param enabled whether results are cached at all.
+ * @param maxSize the approximate total size of the ordered tasks and rendered responses the cache may hold before
+ *                evicting results.
+ * @param ttl     how long a result is kept after it was computed.
+ */
+@ConfigurationProperties("job-processing.cache")
+public record JobResultCacheProperties(@DefaultValue("true") boolean enabled,
+                                       @DefaultValue("256MB") DataSize maxSize,
+                                       @DefaultValue("1h") Duration ttl) {
+}
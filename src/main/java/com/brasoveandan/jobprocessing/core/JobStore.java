@@ -0,0 +1,552 @@
+package com.brasoveandan.jobprocessing.core;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Local, append-only store of ordered jobs keyed by {@link JobHasher#hash(Job)}, so that a job sorted once is
+ * served without sorting again, across restarts, for as long as it is retained.
+ * <p>
+ * Results are appended to a memory-mapped segment file, as {@link BinaryJobFormat} jobs whose tasks are in
+ * their computed order. A full segment is sealed with a sorted index of its job hashes, which lookups binary
+ * search in place, so that starting up maps the sealed segments instead of replaying them: only the records
+ * of the active segment are scanned. Once there are more than {@link JobStoreProperties#maxSegments()} sealed
+ * segments, they are compacted in the background into one holding the newest record of every job still retained,
+ * as much of it as one segment can hold.
+ * <p>
+ * Segment ids grow by two, so that a compacted segment takes the free id just above the newest segment it replaces:
+ * it is written, index first, before the segments it replaces are deleted, and shadows them until then. The files
+ * of replaced segments are deleted at once; their mappings, and so their disk space, go when garbage collected.
+ * <p>
+ * A segment {@code <id>.log} starts with a magic and version, followed by records
+ * {@code [length][crc32c][hash][written at][job]} where the length covers the whole record and the checksum
+ * what follows it; a torn or corrupt record ends the segment. Its index {@code <id>.idx} holds the magic,
+ * version, entry count and end of the segment data, followed by {@code [hash][offset]} entries.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "job-processing.store.enabled", havingValue = "true")
+@EnableConfigurationProperties(JobStoreProperties.class)
+public class JobStore {
+    private static final int SEGMENT_MAGIC = 0x4A534547;
+    private static final int INDEX_MAGIC = 0x4A534958;
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER = 2 * Integer.BYTES;
+    private static final int INDEX_HEADER = 4 * Integer.BYTES;
+    private static final int HASH_BYTES = 32;
+    private static final int HASH_OFFSET = 2 * Integer.BYTES;
+    private static final int WRITTEN_AT_OFFSET = HASH_OFFSET + HASH_BYTES;
+    private static final int RECORD_HEADER = WRITTEN_AT_OFFSET + Long.BYTES;
+    private static final int INDEX_ENTRY = HASH_BYTES + Integer.BYTES;
+    private static final int MIN_SEGMENT_SIZE = 1 << 10;
+    // A mapping is addressed by int.
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    private static final Comparator<IndexEntry> HASH_ORDER = (a, b) -> Arrays.compareUnsigned(a.hash(), b.hash());
+    private static final int ID_STEP = 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Duration retention;
+    private final Clock clock;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("job-store-compactor").daemon().factory());
+    // Newest first.
+    private final Deque<SealedSegment> sealed = new ArrayDeque<>();
+    private ActiveSegment active;
+    private boolean compacting;
+
+    @Autowired
+    public JobStore(JobStoreProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    public JobStore(JobStoreProperties properties, Clock clock) {
+        this.directory = Path.of(properties.directory());
+        this.segmentSize = Math.clamp(properties.segmentSize().toBytes(), MIN_SEGMENT_SIZE, MAX_SEGMENT_SIZE);
+        this.maxSegments = Math.max(1, properties.maxSegments());
+        this.retention = properties.retention();
+        this.clock = clock;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the job store in " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @param hash the hash of a job.
+     * @return the tasks of the job in their stored order, with their requirements listed in that order,
+     * or nothing when the job is not stored or no longer retained.
+     */
+    public Optional<List<Task>> find(String hash) {
+        final byte[] payload = payload(hash);
+        if (payload == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(tasks(BinaryJobFormat.readGraph(new ByteArrayInputStream(payload))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores the ordered tasks of a job, superseding any previous record of the job.
+     *
+     * @param hash         the hash of the job.
+     * @param orderedTasks the tasks of the job in their computed order.
+     */
+    public void append(String hash, List<Task> orderedTasks) {
+        final var payload = new ByteArrayOutputStream();
+        try {
+            BinaryJobFormat.writeJob(orderedTasks, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (payload.size() > MAX_SEGMENT_SIZE - SEGMENT_HEADER - RECORD_HEADER) {
+            log.warn("Not storing job {}: {} bytes exceed the segment size limit.", hash, payload.size());
+            return;
+        }
+        try {
+            append(HexFormat.of().parseHex(hash), hash, payload.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits for a running compaction and flushes the active segment.
+     */
+    @PreDestroy
+    public void close() {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Closing the job store while it is still compacting.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            active.buffer().force();
+        }
+    }
+
+    private synchronized byte[] payload(String hash) {
+        final byte[] key = HexFormat.of().parseHex(hash);
+        final Integer offset = active.offsets().get(hash);
+        if (offset != null) {
+            return payload(active.buffer(), offset, key);
+        }
+        for (SealedSegment segment : sealed) {
+            final int sealedOffset = segment.find(key);
+            if (sealedOffset >= 0) {
+                return payload(segment.data(), sealedOffset, key);
+            }
+        }
+        return null;
+    }
+
+    private byte[] payload(ByteBuffer buffer, int offset, byte[] key) {
+        final int length = recordLength(buffer, offset);
+        if (length < 0 || !Arrays.equals(key, hash(buffer, offset))) {
+            log.warn("Ignoring corrupt record of job {} in the job store.", HexFormat.of().formatHex(key));
+            return null;
+        }
+        if (buffer.getLong(offset + WRITTEN_AT_OFFSET) < retainedSince()) {
+            return null;
+        }
+        final byte[] payload = new byte[length - RECORD_HEADER];
+        buffer.get(offset + RECORD_HEADER, payload);
+        return payload;
+    }
+
+    private synchronized void append(byte[] key, String hash, byte[] payload) throws IOException {
+        final int length = RECORD_HEADER + payload.length;
+        if (length > active.buffer().capacity() - active.end) {
+            roll(length);
+        }
+        final int offset = active.end;
+        final MappedByteBuffer buffer = active.buffer();
+        buffer.put(offset + HASH_OFFSET, key);
+        buffer.putLong(offset + WRITTEN_AT_OFFSET, clock.millis());
+        buffer.put(offset + RECORD_HEADER, payload);
+        buffer.putInt(offset + Integer.BYTES, crc(buffer, offset, length));
+        buffer.putInt(offset, length);
+        active.end += length;
+        active.offsets().put(hash, offset);
+    }
+
+    private synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        final List<String> names;
+        try (Stream<Path> files = Files.list(directory)) {
+            names = files.map(path -> path.getFileName().toString()).toList();
+        }
+        final List<Long> ids = names.stream()
+                .filter(name -> name.matches("\\d{20}\\.log"))
+                .map(name -> Long.parseLong(name.substring(0, 20)))
+                .sorted()
+                .toList();
+        // Left by a crash while writing a segment or deleting compacted ones.
+        for (String name : names) {
+            if (name.endsWith(".tmp") || name.matches("\\d{20}\\.idx") && !ids.contains(Long.parseLong(name.substring(0, 20)))) {
+                Files.deleteIfExists(directory.resolve(name));
+            }
+        }
+        for (long id : ids) {
+            if (Files.exists(indexPath(id))) {
+                sealed.addFirst(openSealed(id));
+            } else if (id == ids.getLast()) {
+                active = openActive(id, segmentSize);
+            } else {
+                // Left unindexed by a crash while rolling over.
+                sealed.addFirst(seal(openActive(id, segmentSize)));
+            }
+        }
+        if (active == null) {
+            active = openActive(ids.isEmpty() ? 1 : ids.getLast() + ID_STEP, segmentSize);
+        }
+        log.info("Opened the job store in {} with {} sealed segments and {} results in the active one.",
+                directory.toAbsolutePath(), sealed.size(), active.offsets().size());
+        scheduleCompaction();
+    }
+
+    private void roll(int recordLength) throws IOException {
+        sealed.addFirst(seal(active));
+        active = openActive(active.id() + ID_STEP, Math.max(segmentSize, SEGMENT_HEADER + recordLength));
+        scheduleCompaction();
+    }
+
+    private void scheduleCompaction() {
+        if (compacting || sealed.size() <= maxSegments) {
+            return;
+        }
+        compacting = true;
+        try {
+            compactor.execute(this::compactWhileNeeded);
+        } catch (RejectedExecutionException e) {
+            // Closed.
+            compacting = false;
+        }
+    }
+
+    private void compactWhileNeeded() {
+        try {
+            while (needsCompaction() && compact()) {
+                // Segments may have been sealed meanwhile.
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not compact the job store.", e);
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    private synchronized boolean needsCompaction() {
+        return sealed.size() > maxSegments;
+    }
+
+    private ActiveSegment openActive(long id, int capacity) throws IOException {
+        final MappedByteBuffer buffer;
+        final boolean created;
+        try (FileChannel channel = FileChannel.open(logPath(id), CREATE, READ, WRITE)) {
+            created = channel.size() == 0;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.clamp(channel.size(), capacity, MAX_SEGMENT_SIZE));
+        }
+        final var segment = new ActiveSegment(id, buffer, new HashMap<>());
+        if (created) {
+            buffer.putInt(0, SEGMENT_MAGIC).putInt(Integer.BYTES, VERSION);
+        } else {
+            checkHeader(buffer, SEGMENT_MAGIC, logPath(id));
+        }
+        segment.end = SEGMENT_HEADER;
+        for (int length; (length = recordLength(buffer, segment.end)) >= 0; segment.end += length) {
+            segment.offsets().put(HexFormat.of().formatHex(hash(buffer, segment.end)), segment.end);
+        }
+        return segment;
+    }
+
+    private SealedSegment seal(ActiveSegment segment) throws IOException {
+        segment.buffer().force();
+        final List<IndexEntry> entries = new ArrayList<>(segment.offsets().size());
+        segment.offsets().forEach((hash, offset) -> entries.add(new IndexEntry(HexFormat.of().parseHex(hash), offset)));
+        writeIndex(segment.id(), entries, segment.end);
+        return openSealed(segment.id());
+    }
+
+    private SealedSegment openSealed(long id) throws IOException {
+        final ByteBuffer index = map(indexPath(id), -1);
+        checkHeader(index, INDEX_MAGIC, indexPath(id));
+        final int count = index.getInt(2 * Integer.BYTES);
+        final int end = index.getInt(3 * Integer.BYTES);
+        return new SealedSegment(id, map(logPath(id), end), index, count);
+    }
+
+    /**
+     * Rewrites the sealed segments into one under the free id above the newest, keeping the newest record of every
+     * job that is neither retention-expired nor superseded by the active segment, as far as one segment can hold
+     * them: the segments are read newest first, so what does not fit is the oldest. Only the swap holds the lock;
+     * the segments being compacted are immutable and only read meanwhile.
+     *
+     * @return whether the segments were compacted; not when the id above the newest is taken, which the next
+     * roll over solves.
+     */
+    private boolean compact() throws IOException {
+        final List<SealedSegment> segments;
+        final Set<ByteBuffer> seen = new HashSet<>();
+        final long id;
+        synchronized (this) {
+            segments = List.copyOf(sealed);
+            active.offsets().keySet().forEach(hash -> seen.add(ByteBuffer.wrap(HexFormat.of().parseHex(hash))));
+            id = segments.getFirst().id() + 1;
+            if (id >= active.id() || Files.exists(logPath(id))) {
+                log.debug("Not compacting the job store yet: segment id {} is taken.", id);
+                return false;
+            }
+        }
+
+        final long retainedSince = retainedSince();
+        final List<ByteBuffer> records = new ArrayList<>();
+        final List<IndexEntry> entries = new ArrayList<>();
+        long end = SEGMENT_HEADER;
+        int dropped = 0;
+        for (SealedSegment segment : segments) {
+            for (int i = 0; i < segment.count(); i++) {
+                final int offset = segment.offset(i);
+                // A corrupt record must not hide an older, intact one.
+                final int length = recordLength(segment.data(), offset);
+                if (length < 0) {
+                    continue;
+                }
+                final byte[] key = segment.key(i);
+                if (!Arrays.equals(key, hash(segment.data(), offset)) || !seen.add(ByteBuffer.wrap(key))
+                        || segment.data().getLong(offset + WRITTEN_AT_OFFSET) < retainedSince) {
+                    continue;
+                }
+                if (end + length > MAX_SEGMENT_SIZE) {
+                    dropped++;
+                    continue;
+                }
+                records.add(segment.data().slice(offset, length));
+                entries.add(new IndexEntry(key, (int) end));
+                end += length;
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Dropping {} of the oldest job store results: the retained ones exceed the segment size limit.", dropped);
+        }
+
+        // Index first: a log without its index would be taken for one left unindexed by a crash and rescanned.
+        writeIndex(id, entries, (int) end);
+        final Path compacted = directory.resolve(logPath(id).getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(compacted, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            channel.write(ByteBuffer.allocate(SEGMENT_HEADER).putInt(SEGMENT_MAGIC).putInt(VERSION).flip());
+            for (ByteBuffer record : records) {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(compacted, logPath(id), ATOMIC_MOVE);
+
+        final Set<Long> replaced = segments.stream().map(SealedSegment::id).collect(Collectors.toSet());
+        synchronized (this) {
+            sealed.removeIf(segment -> replaced.contains(segment.id()));
+            sealed.addLast(openSealed(id));
+        }
+        // No lookup can reach the replaced segments any more.
+        for (SealedSegment segment : segments) {
+            Files.deleteIfExists(logPath(segment.id()));
+            Files.deleteIfExists(indexPath(segment.id()));
+        }
+        log.info("Compacted {} job store segments into {} results of {} bytes.", segments.size(), entries.size(), end);
+        return true;
+    }
+
+    private void writeIndex(long id, List<IndexEntry> entries, int end) throws IOException {
+        entries.sort(HASH_ORDER);
+        final ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER + entries.size() * INDEX_ENTRY)
+                .putInt(INDEX_MAGIC).putInt(VERSION).putInt(entries.size()).putInt(end);
+        for (IndexEntry entry : entries) {
+            index.put(entry.hash()).putInt(entry.offset());
+        }
+        index.flip();
+        final Path written = directory.resolve(indexPath(id).getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(written, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+            channel.force(true);
+        }
+        Files.move(written, indexPath(id), ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    private long retainedSince() {
+        return clock.millis() - retention.toMillis();
+    }
+
+    private Path logPath(long id) {
+        return directory.resolve("%020d.log".formatted(id));
+    }
+
+    private Path indexPath(long id) {
+        return directory.resolve("%020d.idx".formatted(id));
+    }
+
+    /**
+     * Rebuilds the tasks of a stored job; their priorities and durations, which only served to order them,
+     * are not stored.
+     */
+    private static List<Task> tasks(TaskGraph graph) {
+        final List<List<String>> requires = new ArrayList<>(Collections.nCopies(graph.size(), null));
+        for (int i = 0; i < graph.size(); i++) {
+            for (int k = graph.dependentsFrom(i); k < graph.dependentsTo(i); k++) {
+                final int dependent = graph.dependent(k);
+                if (requires.get(dependent) == null) {
+                    requires.set(dependent, new ArrayList<>());
+                }
+                requires.get(dependent).add(graph.name(i));
+            }
+        }
+        final List<Task> tasks = new ArrayList<>(graph.size());
+        for (int i = 0; i < graph.size(); i++) {
+            tasks.add(new Task(graph.name(i), graph.command(i), requires.get(i)));
+        }
+        return tasks;
+    }
+
+    /**
+     * @return the length of the record at the offset, or -1 when there is no intact record there.
+     */
+    private static int recordLength(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset > buffer.capacity() - RECORD_HEADER) {
+            return -1;
+        }
+        final int length = buffer.getInt(offset);
+        if (length < RECORD_HEADER || length > buffer.capacity() - offset
+                || crc(buffer, offset, length) != buffer.getInt(offset + Integer.BYTES)) {
+            return -1;
+        }
+        return length;
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        final var crc = new CRC32C();
+        crc.update(buffer.slice(offset + HASH_OFFSET, length - HASH_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] hash(ByteBuffer buffer, int offset) {
+        final byte[] hash = new byte[HASH_BYTES];
+        buffer.get(offset + HASH_OFFSET, hash);
+        return hash;
+    }
+
+    private static void checkHeader(ByteBuffer buffer, int magic, Path path) throws IOException {
+        if (buffer.capacity() < 2 * Integer.BYTES || buffer.getInt(0) != magic || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Not a job store file of version " + VERSION + ": " + path);
+        }
+    }
+
+    /**
+     * @param size the number of bytes to map, or -1 for the whole file; a shorter file is mapped whole.
+     */
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size < 0 ? channel.size() : Math.min(size, channel.size()));
+        }
+    }
+
+    private record IndexEntry(byte[] hash, int offset) {
+    }
+
+    private static final class ActiveSegment {
+        private final long id;
+        private final MappedByteBuffer buffer;
+        private final Map<String, Integer> offsets;
+        private int end;
+
+        private ActiveSegment(long id, MappedByteBuffer buffer, Map<String, Integer> offsets) {
+            this.id = id;
+            this.buffer = buffer;
+            this.offsets = offsets;
+        }
+
+        long id() {
+            return id;
+        }
+
+        MappedByteBuffer buffer() {
+            return buffer;
+        }
+
+        Map<String, Integer> offsets() {
+            return offsets;
+        }
+    }
+
+    private record SealedSegment(long id, ByteBuffer data, ByteBuffer index, int count) {
+        byte[] key(int i) {
+            final byte[] key = new byte[HASH_BYTES];
+            index.get(INDEX_HEADER + i * INDEX_ENTRY, key);
+            return key;
+        }
+
+        int offset(int i) {
+            return index.getInt(INDEX_HEADER + i * INDEX_ENTRY + HASH_BYTES);
+        }
+
+        /**
+         * @return the offset of the record of the job, or -1 when the segment has none.
+         */
+        int find(byte[] hash) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int comparison = Arrays.compareUnsigned(key(mid), hash);
+                if (comparison < 0) {
+                    low = mid + 1;
+                } else if (comparison > 0) {
+                    high = mid - 1;
+                } else {
+                    return offset(mid);
+                }
+            }
+            return -1;
+        }
+    }
+}
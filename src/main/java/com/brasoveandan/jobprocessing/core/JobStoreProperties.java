@@ -0,0 +1,22 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param enabled     whether ordered jobs are persisted to, and served from, the local job store.
+ * @param directory   the directory holding the segment files.
+ * @param segmentSize the size from which a new segment is started; at most 1GB.
+ * @param maxSegments the number of full segments from which they are compacted into one.
+ * @param retention   how long a stored result is served, and kept by compactions.
+ */
+@ConfigurationProperties("job-processing.store")
+public record JobStoreProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("job-store") String directory,
+                                 @DefaultValue("64MB") DataSize segmentSize,
+                                 @DefaultValue("8") int maxSegments,
+                                 @DefaultValue("7d") Duration retention) {
+}
@@ -0,0 +1,262 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Processes jobs without materializing {@link Job}/{@link Task} records or the rendered response:
+ * tasks are parsed straight into a {@link TaskGraph} and the result is written to an {@link OutputStream}
+ * in topological order.
+ */
+@Log4j2
+@Component
+@EnableConfigurationProperties(JobStreamProperties.class)
+public class JobStreamProcessor {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final int offHeapThreshold;
+
+    /**
+     * Creates a processor that keeps every graph on the heap.
+     */
+    public JobStreamProcessor(ObjectMapper objectMapper) {
+        this(objectMapper, new JobStreamProperties(0));
+    }
+
+    @Autowired
+    public JobStreamProcessor(ObjectMapper objectMapper, JobStreamProperties properties) {
+        this.objectMapper = objectMapper;
+        this.offHeapThreshold = properties.offHeapThreshold();
+    }
+
+    /**
+     * A job read by {@link #readJob(InputStream)}; task {@code i} of the graph is the i-th task of the request.
+     *
+     * @param ordering   how ready tasks are ordered among themselves; {@link OrderingPolicy#INPUT} when missing.
+     * @param targets    the names of the tasks to order along with every task they transitively require;
+     *                   the whole job when missing or empty.
+     * @param priorities the {@link Task#priority()} of every task, 0 when missing; null when no task has one.
+     * @param durations  the {@link Task#estimatedDuration()} of every task, 0 when missing; null when no task has one.
+     */
+    public record StreamedJob(TaskGraph graph, OrderingPolicy ordering, List<String> targets, int[] priorities, long[] durations) {
+    }
+
+    /**
+     * Parses a job in the same JSON shape as {@link Job}, keeping only what ordering it needs.
+     *
+     * @param in the JSON job.
+     * @return the job.
+     */
+    public StreamedJob readJob(InputStream in) throws IOException {
+        final var builder = new TaskGraph.Builder().offHeapThreshold(offHeapThreshold);
+        final var values = new TaskValues();
+        OrderingPolicy ordering = OrderingPolicy.INPUT;
+        List<String> targets = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "tasks" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            readTasks(parser, builder, values);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "ordering" -> ordering = readOrdering(parser, value);
+                    case "targets" -> targets = value == JsonToken.VALUE_NULL ? null : readStrings(parser, value, new ArrayList<>());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        final TaskGraph graph = builder.build();
+        log.debug("Read job with {} tasks and {} dependencies{}.", graph.size(), graph.edgeCount(), graph.isOffHeap() ? " off-heap" : "");
+        return new StreamedJob(graph, ordering, targets, values.priorities(graph.size()), values.durations(graph.size()));
+    }
+
+    /**
+     * Same as {@link #readJob(InputStream)} for callers that only need the dependency graph.
+     *
+     * @param in the JSON job.
+     * @return the dependency graph of the job.
+     */
+    public TaskGraph readGraph(InputStream in) throws IOException {
+        return readJob(in).graph();
+    }
+
+    private void readTasks(JsonParser parser, TaskGraph.Builder builder, TaskValues values) throws IOException {
+        final List<String> requires = new ArrayList<>();
+        for (int i = 0; parser.nextToken() == JsonToken.START_OBJECT; i++) {
+            String name = null;
+            String command = null;
+            requires.clear();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "name" -> name = parser.getValueAsString();
+                    case "command" -> command = parser.getValueAsString();
+                    case "requires" -> {
+                        if (value != JsonToken.VALUE_NULL) {
+                            readStrings(parser, value, requires);
+                        }
+                    }
+                    case "priority" -> {
+                        if (value != JsonToken.VALUE_NULL) {
+                            values.priority(i, parser.getIntValue());
+                        }
+                    }
+                    case "estimatedDuration" -> {
+                        if (value != JsonToken.VALUE_NULL) {
+                            values.duration(i, parser.getLongValue());
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            builder.addTask(name, command);
+            for (String required : requires) {
+                builder.addRequirement(name, required);
+            }
+        }
+        expect(parser.currentToken(), JsonToken.END_ARRAY);
+    }
+
+    private static List<String> readStrings(JsonParser parser, JsonToken value, List<String> strings) throws IOException {
+        expect(value, JsonToken.START_ARRAY);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            strings.add(parser.getValueAsString());
+        }
+        return strings;
+    }
+
+    private static OrderingPolicy readOrdering(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return OrderingPolicy.INPUT;
+        }
+        expect(value, JsonToken.VALUE_STRING);
+        try {
+            return OrderingPolicy.valueOf(parser.getText());
+        } catch (IllegalArgumentException e) {
+            throw new UnparsableJobException("Unparsable JSON request: unknown ordering " + parser.getText());
+        }
+    }
+
+    /**
+     * The priorities and estimated durations of the tasks, only allocated once a task has one.
+     */
+    private static final class TaskValues {
+        private int[] priorities;
+        private long[] durations;
+
+        void priority(int task, int priority) {
+            if (priorities == null || task >= priorities.length) {
+                priorities = priorities == null ? new int[Math.max(16, task + 1)] : Arrays.copyOf(priorities, Math.max(priorities.length * 2, task + 1));
+            }
+            priorities[task] = priority;
+        }
+
+        void duration(int task, long duration) {
+            if (durations == null || task >= durations.length) {
+                durations = durations == null ? new long[Math.max(16, task + 1)] : Arrays.copyOf(durations, Math.max(durations.length * 2, task + 1));
+            }
+            durations[task] = duration;
+        }
+
+        int[] priorities(int size) {
+            return priorities == null ? null : Arrays.copyOf(priorities, size);
+        }
+
+        long[] durations(int size) {
+            return durations == null ? null : Arrays.copyOf(durations, size);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new UnparsableJobException("Unparsable JSON request: expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Writes the ordered tasks as the JSON array returned by {@code /api/orderedTasks}.
+     *
+     * @param graph the dependency graph of a job.
+     * @param order the task indices in topological order.
+     * @param out   the stream to write to; it is flushed but not closed.
+     */
+    public void writeOrderedTasks(TaskGraph graph, int[] order, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            for (int i : order) {
+                generator.writeStartObject();
+                generator.writeStringField("name", graph.name(i));
+                generator.writeStringField("command", graph.command(i));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes the same bash script as {@link JobProcessorService#generateBashScript(List)}, encoding the commands
+     * in place into a chunk that is written to the stream whenever it is full.
+     *
+     * @param graph the dependency graph of a job.
+     * @param order the task indices in topological order.
+     * @param out   the stream to write to; it is flushed but not closed.
+     */
+    public void writeBashScript(TaskGraph graph, int[] order, OutputStream out) throws IOException {
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        final byte[] header = JobProcessorService.BASH_SCRIPT_HEADER.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(header, 0, chunk, 0, header.length);
+        int position = header.length;
+        for (int i : order) {
+            final String command = String.valueOf(graph.command(i));
+            final int maxLength = command.length() * Utf8.MAX_BYTES_PER_CHAR + 1;
+            if (maxLength > chunk.length - position) {
+                out.write(chunk, 0, position);
+                position = 0;
+                if (maxLength > chunk.length) {
+                    out.write(command.getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                    continue;
+                }
+            }
+            final int end = Utf8.encodeAscii(command, chunk, position);
+            position = end >= 0 ? end : Utf8.encode(command, chunk, position);
+            chunk[position++] = '\n';
+        }
+        out.write(chunk, 0, position);
+        out.flush();
+    }
+
+    /**
+     * @param graph the dependency graph of a job.
+     * @param order the task indices in topological order.
+     * @return the size in bytes of the bash script written by {@link #writeBashScript(TaskGraph, int[], OutputStream)}.
+     */
+    public long bashScriptLength(TaskGraph graph, int[] order) {
+        long length = JobProcessorService.BASH_SCRIPT_HEADER.length();
+        for (int i : order) {
+            length += Utf8.length(String.valueOf(graph.command(i))) + 1;
+        }
+        return length;
+    }
+}
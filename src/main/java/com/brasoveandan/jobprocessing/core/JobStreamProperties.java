@@ -0,0 +1,12 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param offHeapThreshold the number of dependencies from which a streamed job keeps its graph off-heap,
+ *                         or 0 to always keep it on the heap.
+ */
+@ConfigurationProperties("job-processing.stream")
+public record JobStreamProperties(@DefaultValue("0") int offHeapThreshold) {
+}
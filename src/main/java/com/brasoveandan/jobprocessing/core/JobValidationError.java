@@ -0,0 +1,26 @@
+package com.brasoveandan.jobprocessing.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One problem found by {@link JobValidator}.
+ *
+ * @param type    the kind of problem.
+ * @param message a readable description of the problem.
+ * @param tasks   the tasks involved: the duplicated name, the task and its unknown requirement,
+ *                every task of a strongly connected component, the unknown target, or the task and its invalid input.
+ * @param cycle   for a circular dependency, an example cycle in which every task requires the next one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JobValidationError(Type type, String message, List<String> tasks, List<String> cycle) {
+
+    public enum Type {
+        DUPLICATE_TASK,
+        MISSING_DEPENDENCY,
+        CIRCULAR_DEPENDENCY,
+        UNKNOWN_TARGET,
+        INVALID_INPUT
+    }
+}
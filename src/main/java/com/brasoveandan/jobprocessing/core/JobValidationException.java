@@ -0,0 +1,22 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when a job is invalid; {@link #getErrors()} lists what is wrong with it, when known.
+ */
+@Getter
+public class JobValidationException extends JobProcessingException {
+    private final transient List<JobValidationError> errors;
+
+    public JobValidationException(String message) {
+        this(message, List.of());
+    }
+
+    public JobValidationException(String message, List<JobValidationError> errors) {
+        super(message);
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,13 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.List;
+
+/**
+ * Response body of a job rejected by {@link JobValidator}.
+ */
+public record JobValidationReport(String message, List<JobValidationError> errors) {
+
+    public static JobValidationReport of(JobValidationException e) {
+        return new JobValidationReport(e.getMessage(), e.getErrors());
+    }
+}
@@ -0,0 +1,260 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.*;
+
+/**
+ * Linear-time checks of a job, run before any sorting or rendering: duplicate task names, requirements naming
+ * unknown tasks, and circular dependencies, each strongly connected component being reported with an example cycle.
+ * At most {@value #MAX_ERRORS} errors are reported.
+ */
+public final class JobValidator {
+    static final int MAX_ERRORS = 100;
+    private static final String CIRCULAR_DEPENDENCY = "Circular dependency detected";
+
+    private JobValidator() {
+    }
+
+    /**
+     * @param tasks the tasks of a job.
+     * @return the dependency graph of the job, built on the way; task {@code i} of the graph is the i-th task of the list.
+     * @throws CircularDependencyException if the only problems are circular dependencies.
+     * @throws JobValidationException      if the job has any other problem.
+     */
+    public static TaskGraph validate(List<Task> tasks) {
+        final List<JobValidationError> errors = new ArrayList<>();
+        int errorCount = 0;
+
+        final NameIndex index = new NameIndex(tasks.size());
+        final boolean[] duplicate = new boolean[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            final String name = tasks.get(i).name();
+            final int knownNames = index.size();
+            if (index.intern(name) < knownNames) {
+                duplicate[i] = true;
+                errorCount = add(errors, errorCount, duplicateTask(name));
+            }
+        }
+
+        // The graph of the first task of every name, with the resolvable requirements only.
+        final int uniqueCount = index.size();
+        final String[] commands = new String[uniqueCount];
+        int[] from = new int[Math.max(16, uniqueCount)];
+        int[] to = new int[from.length];
+        int edgeCount = 0;
+        for (int i = 0, id = 0; i < tasks.size(); i++) {
+            if (duplicate[i]) {
+                continue;
+            }
+            final Task task = tasks.get(i);
+            commands[id] = task.command();
+            if (task.requires() != null) {
+                for (String required : task.requires()) {
+                    final int source = index.indexOf(required);
+                    if (source < 0) {
+                        errorCount = add(errors, errorCount, missingDependency(task.name(), required));
+                        continue;
+                    }
+                    if (edgeCount == from.length) {
+                        from = Arrays.copyOf(from, edgeCount * 2);
+                        to = Arrays.copyOf(to, edgeCount * 2);
+                    }
+                    from[edgeCount] = source;
+                    to[edgeCount++] = id;
+                }
+            }
+            id++;
+        }
+
+        final boolean onlyCycles = errorCount == 0;
+        final TaskGraph graph = TaskGraph.of(index, commands, from, to, edgeCount);
+        errorCount = addCycles(graph, errors, errorCount);
+        if (errorCount == 0) {
+            return graph;
+        }
+        if (onlyCycles) {
+            throw new CircularDependencyException(message(errors, errorCount), errors);
+        }
+        throw invalidJob(errors, errorCount);
+    }
+
+    /**
+     * For producers building a graph without a task list, such as {@link TaskGraph.Builder}.
+     *
+     * @param errors     the errors found, at most {@value #MAX_ERRORS}.
+     * @param errorCount the number of errors found.
+     * @return the exception describing them.
+     */
+    static JobValidationException invalidJob(List<JobValidationError> errors, int errorCount) {
+        return new JobValidationException(message(errors, errorCount), errors);
+    }
+
+    static JobValidationError duplicateTask(String name) {
+        return new JobValidationError(JobValidationError.Type.DUPLICATE_TASK,
+                "Duplicate task name: " + name, List.of(String.valueOf(name)), null);
+    }
+
+    static JobValidationError missingDependency(String name, String requiredName) {
+        return new JobValidationError(JobValidationError.Type.MISSING_DEPENDENCY,
+                "Task " + name + " requires unknown task " + requiredName, Arrays.asList(name, requiredName), null);
+    }
+
+    /**
+     * Explains why a graph could not be sorted.
+     *
+     * @param graph the dependency graph of a job.
+     * @return the exception describing the cycles of the graph.
+     */
+    public static CircularDependencyException circularDependency(TaskGraph graph) {
+        final List<JobValidationError> errors = new ArrayList<>();
+        final int errorCount = addCycles(graph, errors, 0);
+        if (errorCount == 0) {
+            return new CircularDependencyException(CIRCULAR_DEPENDENCY);
+        }
+        return new CircularDependencyException(message(errors, errorCount), errors);
+    }
+
+    /**
+     * For graphs built without {@link #validate(List)}, such as by {@link TaskGraph.Builder}, that must be
+     * checked as a whole even though only part of them is sorted.
+     *
+     * @param graph the dependency graph of a job.
+     * @throws CircularDependencyException if the graph has circular dependencies.
+     */
+    static void checkAcyclic(TaskGraph graph) {
+        final List<JobValidationError> errors = new ArrayList<>();
+        final int errorCount = addCycles(graph, errors, 0);
+        if (errorCount > 0) {
+            throw new CircularDependencyException(message(errors, errorCount), errors);
+        }
+    }
+
+    private static String message(List<JobValidationError> errors, int errorCount) {
+        return errorCount == 1 ? errors.getFirst().message()
+                : errors.getFirst().message() + " (and " + (errorCount - 1) + " more errors)";
+    }
+
+    static int add(List<JobValidationError> errors, int errorCount, JobValidationError error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+        return errorCount + 1;
+    }
+
+    /**
+     * Finds the strongly connected components with Tarjan's algorithm, iteratively so that long chains
+     * cannot overflow the stack, and reports every component that contains a cycle.
+     */
+    private static int addCycles(TaskGraph graph, List<JobValidationError> errors, int errorCount) {
+        final int size = graph.size();
+        final int[] visitIndex = new int[size];
+        final int[] lowLink = new int[size];
+        // Component of every task once assigned, -1 while it is still on the Tarjan stack.
+        final int[] component = new int[size];
+        Arrays.fill(visitIndex, -1);
+        final int[] stack = new int[size];
+        final int[] callStack = new int[size];
+        final int[] nextEdge = new int[size];
+        int stackSize = 0;
+        int visited = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (visitIndex[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = root;
+            nextEdge[0] = graph.dependentsFrom(root);
+            visitIndex[root] = lowLink[root] = visited++;
+            component[root] = -1;
+            stack[stackSize++] = root;
+
+            while (depth >= 0) {
+                final int task = callStack[depth];
+                if (nextEdge[depth] < graph.dependentsTo(task)) {
+                    final int dependent = graph.dependent(nextEdge[depth]++);
+                    if (visitIndex[dependent] < 0) {
+                        visitIndex[dependent] = lowLink[dependent] = visited++;
+                        component[dependent] = -1;
+                        stack[stackSize++] = dependent;
+                        callStack[++depth] = dependent;
+                        nextEdge[depth] = graph.dependentsFrom(dependent);
+                    } else if (component[dependent] < 0) {
+                        lowLink[task] = Math.min(lowLink[task], visitIndex[dependent]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth >= 0) {
+                    final int parent = callStack[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[task]);
+                }
+                if (lowLink[task] == visitIndex[task]) {
+                    final int componentStart = stackSize;
+                    do {
+                        component[stack[--stackSize]] = componentCount;
+                    } while (stack[stackSize] != task);
+                    if (componentStart - stackSize > 1 || hasSelfLoop(graph, task)) {
+                        errorCount = add(errors, errorCount, cycleError(graph, component, componentCount,
+                                Arrays.copyOfRange(stack, stackSize, componentStart)));
+                    }
+                    componentCount++;
+                }
+            }
+        }
+        return errorCount;
+    }
+
+    private static boolean hasSelfLoop(TaskGraph graph, int task) {
+        for (int k = graph.dependentsFrom(task); k < graph.dependentsTo(task); k++) {
+            if (graph.dependent(k) == task) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the error of a cyclic component, with the shortest cycle through its first task found by a
+     * breadth-first search restricted to the component.
+     */
+    private static JobValidationError cycleError(TaskGraph graph, int[] component, int componentId, int[] members) {
+        Arrays.sort(members);
+        final int start = members[0];
+        final Map<Integer, Integer> parent = new HashMap<>();
+        final Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        int last = -1;
+        search:
+        while (!queue.isEmpty()) {
+            final int task = queue.poll();
+            for (int k = graph.dependentsFrom(task); k < graph.dependentsTo(task); k++) {
+                final int dependent = graph.dependent(k);
+                if (dependent == start) {
+                    last = task;
+                    break search;
+                }
+                if (component[dependent] == componentId && !parent.containsKey(dependent)) {
+                    parent.put(dependent, task);
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        // Walking the parents back from the last task lists each task before the one it requires.
+        final List<String> cycle = new ArrayList<>();
+        cycle.add(graph.name(start));
+        for (int task = last; task != start; task = parent.get(task)) {
+            cycle.add(graph.name(task));
+        }
+        cycle.add(graph.name(start));
+
+        final List<String> tasks = new ArrayList<>(members.length);
+        for (int member : members) {
+            tasks.add(graph.name(member));
+        }
+        return new JobValidationError(JobValidationError.Type.CIRCULAR_DEPENDENCY,
+                CIRCULAR_DEPENDENCY + ": " + String.join(" -> ", cycle), tasks, cycle);
+    }
+}
@@ -7,41 +7,96 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Log4j2
 @Component
 @RequiredArgsConstructor
+@EnableConfigurationProperties(PayloadLoggingProperties.class)
 public class LoggingAspect {
     private final ObjectMapper objectMapper;
+    private final PayloadLoggingProperties properties;
 
     @Pointcut("within(com.brasoveandan.jobprocessing.controller.JobProcessingController)")
     public void restControllerMethods() {}
 
     @Around("restControllerMethods()")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
-        Object[] args = joinPoint.getArgs();
         String methodName = joinPoint.getSignature().getName();
         String className = joinPoint.getTarget().getClass().getSimpleName();
-        String input = objectMapper.writeValueAsString(args);
+        boolean logPayload = properties.enabled() && ThreadLocalRandom.current().nextDouble() < properties.sampleRate();
 
-        log.info("Entering method: {}.{}() with arguments = {}", className, methodName, input);
+        if (logPayload) {
+            log.info("Entering method: {}.{}() with arguments = {}", className, methodName, toJson(joinPoint.getArgs()));
+        }
 
         Object result;
         try {
             result = joinPoint.proceed();
-            long elapsedTime = System.currentTimeMillis() - startTime;
-            String output = objectMapper.writeValueAsString(result);
+            long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
 
-            log.info("Exiting method: {}.{}() with result = {} and execution time = {} ms", className, methodName, output, elapsedTime);
+            if (logPayload) {
+                log.info("Exiting method: {}.{}() with result = {} and execution time = {} ms", className, methodName, toJson(result), elapsedTime);
+            } else {
+                log.debug("Exiting method: {}.{}() with execution time = {} ms", className, methodName, elapsedTime);
+            }
         } catch (Throwable throwable) {
-            log.error("Exception in method: {}.{}() with arguments = {}", className, methodName, input, throwable);
+            log.error("Exception in method: {}.{}()", className, methodName, throwable);
             throw throwable;
         }
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Serializes a payload, stopping as soon as it exceeds the configured maximum length.
+     */
+    private String toJson(Object payload) {
+        TruncatingWriter writer = new TruncatingWriter(properties.maxLength());
+        try {
+            objectMapper.writeValue(writer, payload);
+        } catch (IOException | RuntimeException e) {
+            if (!writer.truncated) {
+                return "<unserializable " + payload.getClass().getSimpleName() + ">";
+            }
+        }
+        return writer.truncated ? writer.buffer + "...(truncated)" : writer.buffer.toString();
+    }
+
+    private static final class TruncatingWriter extends Writer {
+        private final StringBuilder buffer = new StringBuilder();
+        private final int maxLength;
+        private boolean truncated;
+
+        private TruncatingWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            int remaining = maxLength - buffer.length();
+            buffer.append(chars, offset, Math.min(length, remaining));
+            if (length > remaining) {
+                truncated = true;
+                throw new IOException("Payload exceeds " + maxLength + " characters");
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled         whether successful runs are recorded by fingerprint, for incremental planning and execution.
+ * @param directory       the directory holding one record per successful fingerprint.
+ * @param inputRoot       the directory task inputs resolve against; inputs outside it are rejected.
+ * @param maxInputEntries the most files and directories a task input may hold; larger inputs are rejected.
+ */
+@ConfigurationProperties("job-processing.memoization")
+public record MemoizationProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("task-results") String directory,
+                                    @DefaultValue(".") String inputRoot,
+                                    @DefaultValue("100000") int maxInputEntries) {
+}
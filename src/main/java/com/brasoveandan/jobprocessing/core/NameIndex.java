@@ -0,0 +1,105 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Interns task names to dense ids {@code 0, 1, ...} in insertion order, without boxing: an open-addressing
+ * table of {@code int} slots holds {@code id + 1}, and each name is kept once in an array indexed by id.
+ * A name that is looked up or interned again resolves to the first instance, so duplicated strings,
+ * such as those of the {@code requires} lists, are not retained.
+ */
+final class NameIndex {
+    private String[] names;
+    private int[] slots;
+    private int size;
+
+    NameIndex(int expectedSize) {
+        this.names = new String[Math.max(16, expectedSize)];
+        this.slots = new int[tableSize(expectedSize)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return the id of the name, or -1 when it is unknown.
+     */
+    int indexOf(String name) {
+        final int mask = slots.length - 1;
+        for (int slot = hash(name) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            final int id = slots[slot] - 1;
+            if (Objects.equals(names[id], name)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the id of the name, which is given the next id when it is unknown.
+     */
+    int intern(String name) {
+        final int mask = slots.length - 1;
+        int slot = hash(name) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            final int id = slots[slot] - 1;
+            if (Objects.equals(names[id], name)) {
+                return id;
+            }
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return size - 1;
+    }
+
+    /**
+     * Releases the spare capacity once no more names are added.
+     */
+    NameIndex trim() {
+        if (names.length != size) {
+            names = Arrays.copyOf(names, size);
+        }
+        final int tableSize = tableSize(size);
+        if (tableSize < slots.length) {
+            rehash(tableSize);
+        }
+        return this;
+    }
+
+    private void rehash(int tableSize) {
+        slots = new int[tableSize];
+        final int mask = tableSize - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(names[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * A power of two keeping the load factor at most 1/2.
+     */
+    private static int tableSize(int expectedSize) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+    }
+
+    private static int hash(String name) {
+        // Spreads the high bits of String.hashCode, which linear probing on a power-of-two table would ignore.
+        final int h = Objects.hashCode(name) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
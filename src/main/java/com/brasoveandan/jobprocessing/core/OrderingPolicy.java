@@ -0,0 +1,18 @@
+package com.brasoveandan.jobprocessing.core;
+
+/**
+ * How {@link TasksSorter} orders the tasks that are ready at the same time, i.e. whose requirements all come earlier.
+ * Ties are broken by position in the job, so every policy yields a deterministic order.
+ */
+public enum OrderingPolicy {
+    /** The earliest task in the job first: the output keeps the input order wherever the dependencies allow it. */
+    INPUT,
+    /** The lexicographically smallest task name first. */
+    NAME,
+    /** The task with the highest {@link Task#priority()} first. */
+    PRIORITY,
+    /** The task with the longest {@link Task#estimatedDuration()} first (longest processing time). */
+    LONGEST_DURATION,
+    /** The task heading the longest chain of estimated durations to the end of the job first (critical path). */
+    CRITICAL_PATH
+}
@@ -0,0 +1,156 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Level-synchronous topological sort for very wide graphs: the tasks of each frontier level are expanded in
+ * parallel on a fork-join pool, with atomic in-degree decrements, to yield the next level. A task joins the
+ * frontier once its last requirement is expanded, so its level is the length of the longest chain of tasks
+ * it transitively requires.
+ * <p>
+ * The output is deterministic whatever the number of threads: tasks are ordered by level, then by index
+ * within a level. Levels narrower than {@link #GRAIN} are expanded on the calling thread.
+ */
+public final class ParallelTopologicalSort {
+    /** The number of frontier tasks below which a level, or a part of it, is not split any further. */
+    static final int GRAIN = 2048;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool the pool expanding the wide levels; {@code null} to expand every level on the calling thread.
+     */
+    public ParallelTopologicalSort(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Tasks sorted level by level.
+     *
+     * @param order  the task indices, by level, then by index within a level.
+     * @param starts where each level starts in {@code order}, followed by the length of {@code order}:
+     *               level {@code l} is {@code order[starts[l]..starts[l + 1])}.
+     */
+    public record Levels(int[] order, int[] starts) {
+
+        /**
+         * @return the number of levels.
+         */
+        public int count() {
+            return starts.length - 1;
+        }
+    }
+
+    /**
+     * @param graph the dependency graph of a job.
+     * @return the task indices in topological order.
+     * @throws CircularDependencyException if the graph has a cycle.
+     */
+    public int[] sort(TaskGraph graph) {
+        return levels(graph).order();
+    }
+
+    /**
+     * @param graph the dependency graph of a job.
+     * @return the tasks grouped into levels, every task only requiring tasks of earlier levels.
+     * @throws CircularDependencyException if the graph has a cycle.
+     */
+    public Levels levels(TaskGraph graph) {
+        final int size = graph.size();
+        final var inDegree = new AtomicIntegerArray(graph.inDegrees());
+        // Levels are laid out one after the other: [levelStart, levelEnd) is the frontier being expanded.
+        final int[] order = new int[size];
+        int levelEnd = 0;
+        for (int i = 0; i < size; i++) {
+            if (inDegree.get(i) == 0) {
+                order[levelEnd++] = i;
+            }
+        }
+
+        int[] starts = new int[16];
+        int count = 0;
+        final var tail = new AtomicInteger(levelEnd);
+        int levelStart = 0;
+        while (levelStart < levelEnd) {
+            if (count + 1 == starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[count++] = levelStart;
+            if (pool == null || levelEnd - levelStart < GRAIN) {
+                expand(graph, inDegree, order, tail, levelStart, levelEnd);
+            } else {
+                pool.invoke(new ExpandLevel(graph, inDegree, order, tail, levelStart, levelEnd));
+            }
+            levelStart = levelEnd;
+            levelEnd = tail.get();
+            // Tasks of a level are appended in completion order; sorting them makes the output deterministic.
+            if (pool == null || levelEnd - levelStart < GRAIN) {
+                Arrays.sort(order, levelStart, levelEnd);
+            } else {
+                Arrays.parallelSort(order, levelStart, levelEnd);
+            }
+        }
+
+        if (levelEnd != size) {
+            throw JobValidator.circularDependency(graph);
+        }
+        starts[count] = size;
+        return new Levels(order, Arrays.copyOf(starts, count + 1));
+    }
+
+    /**
+     * Appends the tasks that {@code order[from..to)} make ready, with a single reservation on the shared tail.
+     */
+    private static void expand(TaskGraph graph, AtomicIntegerArray inDegree, int[] order, AtomicInteger tail, int from, int to) {
+        int[] ready = new int[Math.min(16, to - from)];
+        int count = 0;
+        for (int p = from; p < to; p++) {
+            final int task = order[p];
+            for (int k = graph.dependentsFrom(task), end = graph.dependentsTo(task); k < end; k++) {
+                final int dependent = graph.dependent(k);
+                if (inDegree.decrementAndGet(dependent) == 0) {
+                    if (count == ready.length) {
+                        ready = Arrays.copyOf(ready, Math.max(16, count * 2));
+                    }
+                    ready[count++] = dependent;
+                }
+            }
+        }
+        if (count > 0) {
+            System.arraycopy(ready, 0, order, tail.getAndAdd(count), count);
+        }
+    }
+
+    private static final class ExpandLevel extends RecursiveAction {
+        private final TaskGraph graph;
+        private final AtomicIntegerArray inDegree;
+        private final int[] order;
+        private final AtomicInteger tail;
+        private final int from;
+        private final int to;
+
+        private ExpandLevel(TaskGraph graph, AtomicIntegerArray inDegree, int[] order, AtomicInteger tail, int from, int to) {
+            this.graph = graph;
+            this.inDegree = inDegree;
+            this.order = order;
+            this.tail = tail;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new ExpandLevel(graph, inDegree, order, tail, from, middle),
+                        new ExpandLevel(graph, inDegree, order, tail, middle, to));
+                return;
+            }
+            expand(graph, inDegree, order, tail, from, to);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled    whether the arguments and results of controller methods are logged.
+ * @param sampleRate the fraction of calls, between 0 and 1, whose payloads are logged.
+ * @param maxLength  the maximum number of characters logged per payload.
+ */
+@ConfigurationProperties("job-processing.logging.payload")
+public record PayloadLoggingProperties(@DefaultValue("false") boolean enabled,
+                                       @DefaultValue("0.01") double sampleRate,
+                                       @DefaultValue("1024") int maxLength) {
+}
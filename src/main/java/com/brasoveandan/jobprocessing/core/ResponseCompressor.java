@@ -0,0 +1,76 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips large responses for clients that send {@code Accept-Encoding: gzip}, when
+ * {@code job-processing.compression.enabled} is true.
+ */
+@Component
+@EnableConfigurationProperties(CompressionProperties.class)
+public class ResponseCompressor {
+    public static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CompressionProperties properties;
+
+    public ResponseCompressor(CompressionProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param acceptEncoding the Accept-Encoding header of the request, if any.
+     * @param size           the size of the uncompressed response, only computed when the rest allows compression.
+     * @return whether the response should be gzipped.
+     */
+    public boolean shouldCompress(String acceptEncoding, LongSupplier size) {
+        return properties.enabled() && acceptsGzip(acceptEncoding) && size.getAsLong() >= properties.minSize().toBytes();
+    }
+
+    public byte[] gzip(byte[] bytes) {
+        final var out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return a stream gzipping to {@code out}; {@link GZIPOutputStream#finish()} must be called once written.
+     */
+    public GZIPOutputStream gzip(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.split(";");
+            final String name = parts[0].trim();
+            // A quality of 0 means the coding is not acceptable.
+            final boolean acceptable = parts.length < 2 || !parts[1].trim().toLowerCase(Locale.ROOT).matches("q=0(\\.0*)?");
+            if (GZIP.equalsIgnoreCase(name)) {
+                return acceptable;
+            }
+            if ("*".equals(name)) {
+                wildcard = acceptable;
+            }
+        }
+        // An explicit gzip coding, wherever it is listed, takes precedence over the wildcard.
+        return wildcard;
+    }
+}
@@ -4,6 +4,25 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
+/**
+ * @param priority          used by {@link OrderingPolicy#PRIORITY}: higher runs first among ready tasks, 0 when missing.
+ * @param estimatedDuration used by {@link OrderingPolicy#LONGEST_DURATION} and {@link OrderingPolicy#CRITICAL_PATH},
+ *                          in any unit consistent within the job; 0 when missing.
+ * @param inputs            the files and directories the command reads, part of its {@link TaskFingerprints fingerprint}.
+ * @param env               the names of the environment variables the command reads, part of its fingerprint.
+ */
 public record Task(String name, String command,
-                   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) List<String> requires) {
+                   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) List<String> requires,
+                   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) Integer priority,
+                   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) Long estimatedDuration,
+                   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) List<String> inputs,
+                   @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) List<String> env) {
+
+    public Task(String name, String command, List<String> requires) {
+        this(name, command, requires, null, null);
+    }
+
+    public Task(String name, String command, List<String> requires, Integer priority, Long estimatedDuration) {
+        this(name, command, requires, priority, estimatedDuration, null, null);
+    }
 }
@@ -0,0 +1,26 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * @param name      the task name.
+ * @param status    the outcome of the task.
+ * @param exitCode  the exit code of the command; null if it was skipped, up to date, timed out or could not be run.
+ * @param startedAt when the command started; null if it was skipped, up to date or failed before starting.
+ * @param duration  how long the command ran; zero if it was skipped, up to date or failed before starting.
+ */
+public record TaskExecution(String name, TaskStatus status, Integer exitCode, Instant startedAt, Duration duration) {
+
+    static TaskExecution skipped(String name) {
+        return new TaskExecution(name, TaskStatus.SKIPPED, null, null, Duration.ZERO);
+    }
+
+    static TaskExecution failed(String name) {
+        return new TaskExecution(name, TaskStatus.FAILED, null, null, Duration.ZERO);
+    }
+
+    static TaskExecution upToDate(String name) {
+        return new TaskExecution(name, TaskStatus.UP_TO_DATE, null, null, Duration.ZERO);
+    }
+}
@@ -0,0 +1,204 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Content fingerprints of the tasks of a job, as incremental build tools compute them: the SHA-256 of the command,
+ * of the values of the {@link Task#env() environment variables} and the contents of the {@link Task#inputs() input
+ * files} it declares, and of the fingerprints of the tasks it requires. A task therefore keeps its fingerprint for
+ * as long as neither it nor anything upstream of it changes; its name is left out, so that the same work declared
+ * under another name is recognized too. A task declaring neither inputs nor environment variables has no
+ * fingerprint: nothing says what its command depends on, so it is never up to date.
+ * <p>
+ * Inputs resolve against an input root and must stay below it. An input directory is hashed as the relative paths
+ * and contents of the regular files below it, and the targets of the symbolic links below it, up to a bounded number
+ * of entries; a missing input hashes differently from any file.
+ */
+public final class TaskFingerprints {
+    private static final int MISSING = -1;
+    private static final int FILE = 1;
+    private static final int DIRECTORY = 2;
+    private static final int LINK = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path inputRoot;
+    private final int maxInputEntries;
+    private final UnaryOperator<String> environment;
+
+    /**
+     * @param inputRoot       the directory inputs resolve against.
+     * @param maxInputEntries the most files and directories an input may hold.
+     * @param environment     the value of an environment variable, or null when it is not set.
+     */
+    public TaskFingerprints(Path inputRoot, int maxInputEntries, UnaryOperator<String> environment) {
+        this.inputRoot = inputRoot.toAbsolutePath().normalize();
+        this.maxInputEntries = maxInputEntries;
+        this.environment = environment;
+    }
+
+    /**
+     * @param tasks the tasks of a valid job.
+     * @param graph their dependency graph, from {@link JobValidator#validate(List)}.
+     * @param order the task indices in topological order.
+     * @return the hex-encoded fingerprint of every task, by index; null for the tasks that declare nothing.
+     * @throws JobValidationException if an input is outside the input root, too large or cannot be read.
+     */
+    public String[] of(List<Task> tasks, TaskGraph graph, int[] order) {
+        final String[] fingerprints = new String[tasks.size()];
+        // Each input is hashed once per job, however many tasks read it.
+        final Map<String, byte[]> inputs = new HashMap<>();
+        final List<JobValidationError> errors = new ArrayList<>();
+        for (int i : order) {
+            final Task task = tasks.get(i);
+            final List<String> env = sortedUnique(task.env());
+            final List<String> paths = sortedUnique(task.inputs());
+            if (env.isEmpty() && paths.isEmpty()) {
+                continue;
+            }
+            final MessageDigest digest = sha256();
+            update(digest, task.command());
+
+            update(digest, env.size());
+            for (String name : env) {
+                update(digest, name);
+                update(digest, environment.apply(name));
+            }
+
+            update(digest, paths.size());
+            for (String path : paths) {
+                update(digest, path);
+                final byte[] hash = inputs.computeIfAbsent(path, input -> hashInput(task.name(), input, errors));
+                if (hash != null) {
+                    digest.update(hash);
+                }
+            }
+
+            final List<String> upstream = new ArrayList<>();
+            if (task.requires() != null) {
+                for (String required : task.requires()) {
+                    upstream.add(fingerprints[graph.indexOf(required)]);
+                }
+            }
+            // A task without fingerprint upstream makes this one dirty anyway; it only needs to hash differently.
+            update(digest, upstream.size());
+            upstream.stream().map(fingerprint -> fingerprint == null ? "" : fingerprint).distinct().sorted()
+                    .forEach(fingerprint -> update(digest, fingerprint));
+
+            fingerprints[i] = HexFormat.of().formatHex(digest.digest());
+        }
+        if (!errors.isEmpty()) {
+            throw new JobValidationException("Invalid task inputs", errors);
+        }
+        return fingerprints;
+    }
+
+    /**
+     * @return the hash of the input, or null after adding to the errors why it cannot be hashed.
+     */
+    private byte[] hashInput(String taskName, String input, List<JobValidationError> errors) {
+        final Path path = inputRoot.resolve(input).normalize();
+        if (!path.startsWith(inputRoot)) {
+            errors.add(invalidInput(taskName, input, "is outside the input root"));
+            return null;
+        }
+        final MessageDigest digest = sha256();
+        try {
+            if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+                update(digest, MISSING);
+            } else if (!path.toRealPath().startsWith(inputRoot.toRealPath())) {
+                errors.add(invalidInput(taskName, input, "links outside the input root"));
+                return null;
+            } else if (Files.isRegularFile(path)) {
+                update(digest, FILE);
+                hashFile(path, digest);
+            } else {
+                update(digest, DIRECTORY);
+                final List<Path> entries;
+                try (Stream<Path> walk = Files.walk(path)) {
+                    entries = walk.limit(maxInputEntries + 1L).sorted().toList();
+                }
+                if (entries.size() > maxInputEntries) {
+                    errors.add(invalidInput(taskName, input, "holds more than " + maxInputEntries + " entries"));
+                    return null;
+                }
+                for (Path entry : entries) {
+                    if (Files.isSymbolicLink(entry)) {
+                        // Hashed as the link itself: what it points to may be outside the input root.
+                        update(digest, path.relativize(entry).toString());
+                        update(digest, LINK);
+                        update(digest, Files.readSymbolicLink(entry).toString());
+                    } else if (Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        update(digest, path.relativize(entry).toString());
+                        update(digest, FILE);
+                        hashFile(entry, digest);
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            errors.add(invalidInput(taskName, input, "cannot be read"));
+            return null;
+        }
+        return digest.digest();
+    }
+
+    private static JobValidationError invalidInput(String taskName, String input, String problem) {
+        return new JobValidationError(JobValidationError.Type.INVALID_INPUT,
+                "Input " + input + " of task " + taskName + " " + problem, List.of(taskName, input), null);
+    }
+
+    private static void hashFile(Path file, MessageDigest digest) throws IOException {
+        update(digest, Files.size(file));
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (in.read(buffer) >= 0) {
+                // Hashed by the stream.
+            }
+        }
+    }
+
+    private static List<String> sortedUnique(Collection<String> values) {
+        return values == null ? List.of() : values.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            update(digest, MISSING);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void update(MessageDigest digest, long value) {
+        update(digest, (int) (value >>> 32));
+        update(digest, (int) value);
+    }
+
+    private static void update(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.brasoveandan.jobprocessing.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Int-indexed dependency graph of a job, built in a single pass over the {@code requires} edges.
+ * <p>
+ * Edges point from a required task to the tasks requiring it and are stored in CSR form: the dependents
+ * of task {@code i} are {@code dependent(k)} for {@code k} in {@code [dependentsFrom(i), dependentsTo(i))}.
+ * Names are interned by a {@link NameIndex}, so a graph holds one string per task name and one {@code int}
+ * per edge. Very large graphs can keep their CSR arrays off-heap, see {@link Builder#offHeapThreshold(int)}.
+ */
+public final class TaskGraph {
+    private final NameIndex index;
+    private final String[] commands;
+    private final int edgeCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] inDegree;
+    // Off-heap graphs hold offsets, in-degrees and targets one after the other in this buffer instead.
+    private final IntBuffer offHeap;
+
+    private TaskGraph(NameIndex index, String[] commands, int edgeCount,
+                      int[] offsets, int[] targets, int[] inDegree, IntBuffer offHeap) {
+        this.index = index;
+        this.commands = commands;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.inDegree = inDegree;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Builds the graph of the given tasks; task {@code i} of the graph is the i-th task of the list.
+     * Requirements naming an unknown task are ignored.
+     *
+     * @param tasks a list of unsorted tasks.
+     * @return the dependency graph.
+     */
+    public static TaskGraph of(List<Task> tasks) {
+        final int size = tasks.size();
+        final NameIndex index = new NameIndex(size);
+        final String[] commands = new String[size];
+        int edgeCount = 0;
+        for (int i = 0; i < size; i++) {
+            final Task task = tasks.get(i);
+            if (index.intern(task.name()) != i) {
+                throw new JobProcessingException("Duplicate task name: " + task.name());
+            }
+            commands[i] = task.command();
+            if (task.requires() != null) {
+                edgeCount += task.requires().size();
+            }
+        }
+
+        final int[] from = new int[edgeCount];
+        final int[] to = new int[edgeCount];
+        int edge = 0;
+        for (int i = 0; i < size; i++) {
+            final List<String> requires = tasks.get(i).requires();
+            if (requires == null) {
+                continue;
+            }
+            for (String name : requires) {
+                from[edge] = index.indexOf(name);
+                to[edge++] = i;
+            }
+        }
+
+        return of(index, commands, from, to, edgeCount);
+    }
+
+    /**
+     * Builds the graph of tasks whose requirements are already resolved to indices, such as a decoded
+     * {@link BinaryJobFormat} job: edge {@code e} makes task {@code to[e]} require task {@code from[e]}.
+     *
+     * @param names     the task names.
+     * @param commands  the task commands.
+     * @param from      the required task of each edge.
+     * @param to        the requiring task of each edge.
+     * @param edgeCount the number of edges.
+     * @return the dependency graph.
+     */
+    public static TaskGraph of(String[] names, String[] commands, int[] from, int[] to, int edgeCount) {
+        final NameIndex index = new NameIndex(names.length);
+        final List<JobValidationError> errors = new ArrayList<>();
+        int errorCount = 0;
+        for (String name : names) {
+            final int knownNames = index.size();
+            if (index.intern(name) < knownNames) {
+                errorCount = JobValidator.add(errors, errorCount, JobValidator.duplicateTask(name));
+            }
+        }
+        if (errorCount > 0) {
+            throw JobValidator.invalidJob(errors, errorCount);
+        }
+        return of(index, commands, from, to, edgeCount);
+    }
+
+    /**
+     * Builds the graph of the tasks interned by the index; edges whose {@code from} is negative are ignored.
+     */
+    static TaskGraph of(NameIndex index, String[] commands, int[] from, int[] to, int edgeCount) {
+        return build(index.trim(), commands, from, to, edgeCount, false);
+    }
+
+    private static TaskGraph build(NameIndex index, String[] commands, int[] from, int[] to, int edgeCount,
+                                   boolean offHeap) {
+        final int size = index.size();
+        final int[] inDegree = new int[size];
+        final int[] offsets = new int[size + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            if (from[e] >= 0) {
+                offsets[from[e] + 1]++;
+                inDegree[to[e]]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        final int targetCount = offsets[size];
+        final int[] cursor = Arrays.copyOf(offsets, size);
+
+        if (offHeap) {
+            // The targets, the bulk of the graph, are written straight to the buffer.
+            final IntBuffer buffer = ByteBuffer.allocateDirect(Math.multiplyExact(2 * size + 1 + targetCount, Integer.BYTES))
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+            buffer.put(0, offsets).put(size + 1, inDegree);
+            final int targetsStart = 2 * size + 1;
+            for (int e = 0; e < edgeCount; e++) {
+                if (from[e] >= 0) {
+                    buffer.put(targetsStart + cursor[from[e]]++, to[e]);
+                }
+            }
+            return new TaskGraph(index, commands, targetCount, null, null, null, buffer);
+        }
+
+        final int[] targets = new int[targetCount];
+        for (int e = 0; e < edgeCount; e++) {
+            if (from[e] >= 0) {
+                targets[cursor[from[e]]++] = to[e];
+            }
+        }
+        return new TaskGraph(index, commands, targetCount, offsets, targets, inDegree, null);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return whether the CSR arrays of the graph are stored outside the Java heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap != null;
+    }
+
+    /**
+     * @return the bytes held by the CSR arrays of the graph (offsets, in-degrees and dependents), on the heap or off it.
+     */
+    public long csrBytes() {
+        return offHeap != null ? (long) offHeap.capacity() * Integer.BYTES
+                : (long) (offsets.length + inDegree.length + targets.length) * Integer.BYTES;
+    }
+
+    public String name(int i) {
+        return index.name(i);
+    }
+
+    public String command(int i) {
+        return commands[i];
+    }
+
+    /**
+     * @return the index of the task with the given name, or -1 when there is none.
+     */
+    public int indexOf(String name) {
+        return index.indexOf(name);
+    }
+
+    public int inDegree(int i) {
+        return inDegree != null ? inDegree[i] : offHeap.get(size() + 1 + i);
+    }
+
+    public int dependentsFrom(int i) {
+        return offsets != null ? offsets[i] : offHeap.get(i);
+    }
+
+    public int dependentsTo(int i) {
+        return offsets != null ? offsets[i + 1] : offHeap.get(i + 1);
+    }
+
+    public int dependent(int k) {
+        return targets != null ? targets[k] : offHeap.get(2 * size() + 1 + k);
+    }
+
+    /**
+     * @return a mutable copy of the in-degrees, to be counted down by a topological sort.
+     */
+    public int[] inDegrees() {
+        if (inDegree != null) {
+            return inDegree.clone();
+        }
+        final int[] copy = new int[size()];
+        offHeap.get(size() + 1, copy);
+        return copy;
+    }
+
+    /**
+     * Incremental builder for producers that see tasks one at a time, such as a streaming parser.
+     * A requirement may name a task that is only added later. Duplicate task names and requirements naming
+     * a task that is never added are reported by {@link #build()}, as {@link JobValidator} reports them.
+     */
+    public static final class Builder {
+        private final NameIndex index = new NameIndex(16);
+        private String[] commands = new String[16];
+        private boolean[] added = new boolean[16];
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int edgeCount;
+        private int addedCount;
+        private int offHeapThreshold;
+        private final List<JobValidationError> errors = new ArrayList<>();
+        private int errorCount;
+
+        /**
+         * Stores the built graph off-heap when it has at least the given number of edges.
+         *
+         * @param edgeCount the minimum number of edges of an off-heap graph; 0 always keeps the graph on the heap.
+         */
+        public Builder offHeapThreshold(int edgeCount) {
+            this.offHeapThreshold = edgeCount;
+            return this;
+        }
+
+        public Builder addTask(String name, String command) {
+            final int id = intern(name);
+            if (added[id]) {
+                // The first task of the name is kept, as by JobValidator.
+                errorCount = JobValidator.add(errors, errorCount, JobValidator.duplicateTask(name));
+                return this;
+            }
+            added[id] = true;
+            commands[id] = command;
+            addedCount++;
+            return this;
+        }
+
+        public Builder addRequirement(String name, String requiredName) {
+            if (edgeCount == from.length) {
+                from = Arrays.copyOf(from, edgeCount * 2);
+                to = Arrays.copyOf(to, edgeCount * 2);
+            }
+            from[edgeCount] = intern(requiredName);
+            to[edgeCount++] = intern(name);
+            return this;
+        }
+
+        /**
+         * @throws JobValidationException if task names are duplicated or requirements name unknown tasks.
+         */
+        public TaskGraph build() {
+            final int size = index.size();
+            if (addedCount < size) {
+                for (int e = 0; e < edgeCount; e++) {
+                    if (!added[from[e]]) {
+                        errorCount = JobValidator.add(errors, errorCount,
+                                JobValidator.missingDependency(index.name(to[e]), index.name(from[e])));
+                    }
+                }
+            }
+            if (errorCount > 0) {
+                throw JobValidator.invalidJob(errors, errorCount);
+            }
+            final boolean offHeap = offHeapThreshold > 0 && edgeCount >= offHeapThreshold;
+            return TaskGraph.build(index.trim(), Arrays.copyOf(commands, size), from, to, edgeCount, offHeap);
+        }
+
+        private int intern(String name) {
+            final int id = index.intern(name);
+            if (id == commands.length) {
+                commands = Arrays.copyOf(commands, id * 2);
+                added = Arrays.copyOf(added, id * 2);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Local, content-addressed record of successful task runs: a {@link TaskFingerprints fingerprint} has succeeded
+ * once the file {@code <directory>/<first two digits>/<fingerprint>} exists. Records are only ever added, each one
+ * atomically, so that concurrent runs, and processes sharing the directory, need no coordination.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "job-processing.memoization.enabled", havingValue = "true")
+@EnableConfigurationProperties(MemoizationProperties.class)
+public class TaskResultStore {
+    private final Path directory;
+
+    public TaskResultStore(MemoizationProperties properties) {
+        this.directory = Path.of(properties.directory());
+    }
+
+    /**
+     * @param fingerprint the fingerprint of a task.
+     * @return whether a task with this fingerprint has succeeded before.
+     */
+    public boolean hasSucceeded(String fingerprint) {
+        return Files.exists(path(fingerprint));
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the task.
+     * @param execution   its successful run, described in the record for whoever inspects the directory.
+     */
+    public void recordSuccess(String fingerprint, TaskExecution execution) {
+        final Path record = path(fingerprint);
+        try {
+            Files.createDirectories(record.getParent());
+            final Path written = Files.createTempFile(record.getParent(), fingerprint, ".tmp");
+            Files.writeString(written, "name=%s%nstartedAt=%s%nduration=%s%n".formatted(
+                    execution.name(), execution.startedAt(), execution.duration()));
+            Files.move(written, record, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot record the success of task " + execution.name(), e);
+        }
+        log.debug("Recorded the success of task {} as {}.", execution.name(), fingerprint);
+    }
+
+    private Path path(String fingerprint) {
+        return directory.resolve(fingerprint.substring(0, 2)).resolve(fingerprint);
+    }
+}
@@ -0,0 +1,9 @@
+package com.brasoveandan.jobprocessing.core;
+
+public enum TaskStatus {
+    SUCCEEDED,
+    FAILED,
+    SKIPPED,
+    /** Not run by an incremental execution, having already succeeded with the same fingerprint. */
+    UP_TO_DATE
+}
@@ -1,94 +1,492 @@
 package com.brasoveandan.jobprocessing.core;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 
 @Log4j2
 @Component
+@EnableConfigurationProperties(TasksSorterProperties.class)
 public class TasksSorter {
+    private static final TaskOrder INPUT_ORDER = (a, b) -> a < b;
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+    private static final ParallelTopologicalSort SEQUENTIAL_LEVELS = new ParallelTopologicalSort(null);
+
+    private final ForkJoinPool pool;
+    private final ParallelTopologicalSort parallelSort;
+    private final int parallelThreshold;
+
+    /**
+     * Creates a sequential sorter.
+     */
+    public TasksSorter() {
+        this(new TasksSorterProperties(false, Integer.MAX_VALUE, 0));
+    }
+
+    @Autowired
+    public TasksSorter(TasksSorterProperties properties) {
+        if (properties.parallel()) {
+            final int parallelism = properties.parallelism() > 0 ? properties.parallelism() : Runtime.getRuntime().availableProcessors();
+            this.pool = new ForkJoinPool(parallelism);
+            this.parallelSort = new ParallelTopologicalSort(pool);
+        } else {
+            this.pool = null;
+            this.parallelSort = null;
+        }
+        this.parallelThreshold = properties.parallelThreshold();
+    }
 
     /**
-     * Sorts the list of tasks based on their dependencies.
+     * Sorts the list of tasks based on their dependencies, once {@link JobValidator} has checked them,
+     * keeping the input order wherever the dependencies allow it.
      *
      * @param tasks a list of unsorted tasks.
      * @return a list of ordered tasks.
+     * @throws JobValidationException if the tasks have duplicate names, unknown requirements or cycles.
      */
     public List<Task> sortTasks(List<Task> tasks) {
-        log.debug("Starting task sorting process.");
+        return sortTasks(tasks, OrderingPolicy.INPUT);
+    }
 
-        Map<String, Task> taskMap = createTaskMap(tasks);
-        Map<String, List<String>> dependencyGraph = createDependencyGraph(tasks);
-        Map<String, Integer> inDegree = calculateInDegrees(dependencyGraph);
+    /**
+     * Sorts the list of tasks based on their dependencies, once {@link JobValidator} has checked them.
+     * Among the tasks whose requirements are all done, the next one is picked by the ordering policy.
+     *
+     * @param tasks  a list of unsorted tasks.
+     * @param policy how ready tasks are ordered among themselves.
+     * @return a list of ordered tasks.
+     * @throws JobValidationException if the tasks have duplicate names, unknown requirements or cycles.
+     */
+    public List<Task> sortTasks(List<Task> tasks, OrderingPolicy policy) {
+        log.debug("Starting task sorting process with {} ordering.", policy);
+        int[] order = sortIndices(tasks, policy);
 
-        List<Task> sortedTasks = performTopologicalSort(taskMap, dependencyGraph, inDegree);
+        List<Task> sortedTasks = new ArrayList<>(order.length);
+        for (int i : order) {
+            sortedTasks.add(tasks.get(i));
+        }
 
         log.debug("Task sorting process completed successfully.");
         return sortedTasks;
     }
 
-    private Map<String, Task> createTaskMap(List<Task> tasks) {
-        return tasks.stream()
-                .collect(Collectors.toMap(Task::name, task -> task));
+    /**
+     * Same as {@link #sortTasks(List, OrderingPolicy)}, for callers that only need the positions of the tasks.
+     *
+     * @param tasks  a list of unsorted tasks.
+     * @param policy how ready tasks are ordered among themselves.
+     * @return the task indices in topological order.
+     * @throws JobValidationException if the tasks have duplicate names, unknown requirements or cycles.
+     */
+    public int[] sortIndices(List<Task> tasks, OrderingPolicy policy) {
+        return sort(tasks, JobValidator.validate(tasks), policy);
+    }
+
+    /**
+     * Same as {@link #sortTasks(List, OrderingPolicy)} for the targets and every task they transitively require only.
+     *
+     * @param tasks   a list of unsorted tasks.
+     * @param policy  how ready tasks are ordered among themselves.
+     * @param targets the names of the tasks to order; all of them when {@code null} or empty.
+     * @return a list of ordered tasks.
+     * @throws JobValidationException if the job is invalid or a target is unknown.
+     */
+    public List<Task> sortTasks(List<Task> tasks, OrderingPolicy policy, Collection<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return sortTasks(tasks, policy);
+        }
+        return select(tasks, sortIndices(tasks, policy, targets));
+    }
+
+    /**
+     * Same as {@link #sortIndices(List, OrderingPolicy)} for the targets and every task they transitively require only.
+     *
+     * @param tasks   a list of unsorted tasks.
+     * @param policy  how ready tasks are ordered among themselves.
+     * @param targets the names of the tasks to order; all of them when {@code null} or empty.
+     * @return the indices of the ordered tasks in the list, in topological order.
+     * @throws JobValidationException if the job is invalid or a target is unknown.
+     */
+    public int[] sortIndices(List<Task> tasks, OrderingPolicy policy, Collection<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return sortIndices(tasks, policy);
+        }
+        final TaskGraph graph = JobValidator.validate(tasks);
+        final int[] closure = requiredIndices(graph, targets);
+        final int[] order = sort(select(tasks, closure), subGraph(graph, closure), policy);
+        for (int k = 0; k < order.length; k++) {
+            order[k] = closure[order[k]];
+        }
+        return order;
     }
 
-    private Map<String, List<String>> createDependencyGraph(List<Task> tasks) {
-        return tasks.stream()
-                .collect(Collectors.toMap(
-                        Task::name,
-                        task -> tasks.stream()
-                                .filter(t -> t.requires() != null && t.requires().contains(task.name()))
-                                .map(Task::name)
-                                .collect(Collectors.toList())
-                ));
+    /**
+     * The whole job is validated, but only the required tasks are sorted afterwards.
+     *
+     * @param tasks   the tasks of a job.
+     * @param targets the names of some of the tasks; all of them when {@code null} or empty.
+     * @return the targets and every task they transitively require, in the order of the list.
+     * @throws JobValidationException if the job is invalid or a target is unknown.
+     */
+    public List<Task> requiredClosure(List<Task> tasks, Collection<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return tasks;
+        }
+        return select(tasks, requiredIndices(JobValidator.validate(tasks), targets));
     }
 
-    private Map<String, Integer> calculateInDegrees(Map<String, List<String>> dependencyGraph) {
-        Map<String, Integer> inDegree = new HashMap<>();
-        dependencyGraph.keySet().forEach(task -> inDegree.put(task, 0));
+    /**
+     * Walks the requirements back from the targets, visiting each required task once, over the reversed edges
+     * of the graph rather than the {@code requires} names so that no name is looked up again.
+     *
+     * @return the indices of the targets and of the tasks they transitively require, in ascending order.
+     */
+    private static int[] requiredIndices(TaskGraph graph, Collection<String> targets) {
+        final boolean[] required = new boolean[graph.size()];
+        int[] stack = new int[Math.min(graph.size(), 16)];
+        int top = 0;
+        int count = 0;
+        final List<JobValidationError> errors = new ArrayList<>();
+        for (String target : targets) {
+            final int i = graph.indexOf(target);
+            if (i < 0) {
+                errors.add(new JobValidationError(JobValidationError.Type.UNKNOWN_TARGET,
+                        "Unknown target task " + target, Collections.singletonList(target), null));
+            } else if (!required[i]) {
+                required[i] = true;
+                count++;
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, Math.min(graph.size(), top * 2));
+                }
+                stack[top++] = i;
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new JobValidationException(errors.size() == 1 ? errors.getFirst().message()
+                    : errors.getFirst().message() + " (and " + (errors.size() - 1) + " more errors)", errors);
+        }
 
-        dependencyGraph.values().stream()
-                .flatMap(List::stream)
-                .forEach(dependentTask -> inDegree.merge(dependentTask, 1, Integer::sum));
+        // The requirements of task i are requirements[requirementsFrom[i]..requirementsFrom[i + 1]).
+        final int size = graph.size();
+        final int[] requirementsFrom = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            requirementsFrom[i + 1] = requirementsFrom[i] + graph.inDegree(i);
+        }
+        final int[] requirements = new int[requirementsFrom[size]];
+        final int[] next = Arrays.copyOf(requirementsFrom, size);
+        for (int i = 0; i < size; i++) {
+            for (int k = graph.dependentsFrom(i), end = graph.dependentsTo(i); k < end; k++) {
+                requirements[next[graph.dependent(k)]++] = i;
+            }
+        }
+
+        while (top > 0) {
+            final int task = stack[--top];
+            for (int k = requirementsFrom[task]; k < requirementsFrom[task + 1]; k++) {
+                final int i = requirements[k];
+                if (!required[i]) {
+                    required[i] = true;
+                    count++;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, Math.min(graph.size(), top * 2));
+                    }
+                    stack[top++] = i;
+                }
+            }
+        }
 
-        return inDegree;
+        final int[] closure = new int[count];
+        for (int i = 0, k = 0; k < count; i++) {
+            if (required[i]) {
+                closure[k++] = i;
+            }
+        }
+        return closure;
     }
 
-    private List<Task> performTopologicalSort(Map<String, Task> taskMap,
-                                              Map<String, List<String>> dependencyGraph,
-                                              Map<String, Integer> inDegree) {
-        log.debug("Performing topological sort.");
+    /**
+     * The graph of the given tasks, task {@code k} being task {@code indices[k]} of the graph; since they include
+     * everything they require, no requirement is lost and the graph stays acyclic.
+     */
+    private static TaskGraph subGraph(TaskGraph graph, int[] indices) {
+        final int[] local = new int[graph.size()];
+        Arrays.fill(local, -1);
+        final NameIndex names = new NameIndex(indices.length);
+        final String[] commands = new String[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            local[indices[k]] = k;
+            names.intern(graph.name(indices[k]));
+            commands[k] = graph.command(indices[k]);
+        }
+        int[] from = new int[Math.max(16, indices.length)];
+        int[] to = new int[from.length];
+        int edgeCount = 0;
+        for (int k = 0; k < indices.length; k++) {
+            for (int e = graph.dependentsFrom(indices[k]), end = graph.dependentsTo(indices[k]); e < end; e++) {
+                final int dependent = local[graph.dependent(e)];
+                if (dependent < 0) {
+                    continue;
+                }
+                if (edgeCount == from.length) {
+                    from = Arrays.copyOf(from, edgeCount * 2);
+                    to = Arrays.copyOf(to, edgeCount * 2);
+                }
+                from[edgeCount] = k;
+                to[edgeCount++] = dependent;
+            }
+        }
+        return TaskGraph.of(names, commands, from, to, edgeCount);
+    }
 
-        Queue<String> queue = inDegree.entrySet().stream()
-                .filter(entry -> entry.getValue() == 0)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toCollection(LinkedList::new));
+    private static List<Task> select(List<Task> tasks, int[] indices) {
+        final List<Task> selected = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            selected.add(tasks.get(i));
+        }
+        return selected;
+    }
 
-        List<Task> sortedTasks = new ArrayList<>();
+    private static int[] select(int[] values, int[] indices) {
+        if (values == null) {
+            return null;
+        }
+        final int[] selected = new int[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            selected[k] = values[indices[k]];
+        }
+        return selected;
+    }
 
-        while (!queue.isEmpty()) {
-            String taskName = queue.poll();
-            Task task = taskMap.get(taskName);
-            sortedTasks.add(task);
-            log.debug("Task {} added to sorted list.", taskName);
+    private static long[] select(long[] values, int[] indices) {
+        if (values == null) {
+            return null;
+        }
+        final long[] selected = new long[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            selected[k] = values[indices[k]];
+        }
+        return selected;
+    }
+
+    /**
+     * Sorts the tasks of a dependency graph, the earliest ready task first, whatever the size of the graph
+     * and the configuration.
+     *
+     * @param graph the dependency graph of a job.
+     * @return the task indices in topological order.
+     */
+    public int[] sortGraph(TaskGraph graph) {
+        return sort(graph, INPUT_ORDER);
+    }
 
-            dependencyGraph.getOrDefault(taskName, Collections.emptyList())
-                    .forEach(dependentTask -> {
-                        inDegree.put(dependentTask, inDegree.get(dependentTask) - 1);
-                        if (inDegree.get(dependentTask) == 0) {
-                            queue.add(dependentTask);
-                        }
-                    });
+    /**
+     * Same as {@link #sortIndices(List, OrderingPolicy, Collection)} for a job parsed straight into a graph,
+     * such as by {@link JobStreamProcessor}, the values the policies read being given by task index.
+     *
+     * @param graph      the dependency graph of a job, without duplicate names or unknown requirements.
+     * @param policy     how ready tasks are ordered among themselves.
+     * @param priorities the {@link Task#priority()} of every task; all 0 when {@code null}.
+     * @param durations  the {@link Task#estimatedDuration()} of every task; all 0 when {@code null}.
+     * @param targets    the names of the tasks to order; all of them when {@code null} or empty.
+     * @return the task indices of the ordered tasks, in topological order.
+     * @throws JobValidationException if the graph has cycles or a target is unknown.
+     */
+    public int[] sortGraph(TaskGraph graph, OrderingPolicy policy, int[] priorities, long[] durations, Collection<String> targets) {
+        if (targets == null || targets.isEmpty()) {
+            return sort(graph, taskOrder(graph, policy, priorities, durations));
+        }
+        JobValidator.checkAcyclic(graph);
+        final int[] closure = requiredIndices(graph, targets);
+        final TaskGraph subGraph = subGraph(graph, closure);
+        final int[] order = sort(subGraph, taskOrder(subGraph, policy, select(priorities, closure), select(durations, closure)));
+        for (int k = 0; k < order.length; k++) {
+            order[k] = closure[order[k]];
         }
+        return order;
+    }
 
-        if (sortedTasks.size() != taskMap.size()) {
+    /**
+     * Sorts the tasks of a dependency graph into dependency levels, a task's level being the length of the longest
+     * chain of tasks it transitively requires. When parallel sorting is enabled, the levels of graphs of at least
+     * {@code parallel-threshold} tasks are expanded on a fork-join pool; the result is the same either way.
+     *
+     * @param graph the dependency graph of a job.
+     * @return the tasks by level, then by index within a level.
+     * @throws CircularDependencyException if the graph has a cycle.
+     */
+    public ParallelTopologicalSort.Levels sortLevels(TaskGraph graph) {
+        if (parallelSort != null && graph.size() >= parallelThreshold) {
+            log.debug("Performing parallel level sort.");
+            return parallelSort.levels(graph);
+        }
+        return SEQUENTIAL_LEVELS.levels(graph);
+    }
+
+    /**
+     * @param tasks the tasks of a valid job.
+     * @param graph their dependency graph.
+     */
+    private int[] sort(List<Task> tasks, TaskGraph graph, OrderingPolicy policy) {
+        return policy == OrderingPolicy.INPUT ? sortGraph(graph) : sort(graph, taskOrder(tasks, graph, policy));
+    }
+
+    /**
+     * Kahn's algorithm with a binary heap of ready tasks, in O((V + E) log V).
+     */
+    private static int[] sort(TaskGraph graph, TaskOrder taskOrder) {
+        log.debug("Performing topological sort.");
+        final int size = graph.size();
+        final int[] inDegree = graph.inDegrees();
+        final int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (inDegree[i] == 0) {
+                heapSize = push(heap, heapSize, i, taskOrder);
+            }
+        }
+
+        final int[] order = new int[size];
+        int count = 0;
+        while (heapSize > 0) {
+            final int task = heap[0];
+            heapSize = pop(heap, heapSize, taskOrder);
+            order[count++] = task;
+            for (int k = graph.dependentsFrom(task), end = graph.dependentsTo(task); k < end; k++) {
+                final int dependentTask = graph.dependent(k);
+                if (--inDegree[dependentTask] == 0) {
+                    heapSize = push(heap, heapSize, dependentTask, taskOrder);
+                }
+            }
+        }
+
+        if (count != size) {
             log.error("Circular dependency detected.");
-            throw new JobProcessingException("Circular dependency detected");
+            throw JobValidator.circularDependency(graph);
         }
 
         log.debug("Topological sort completed successfully.");
-        return sortedTasks;
+        return order;
+    }
+
+    private static int push(int[] heap, int heapSize, int task, TaskOrder taskOrder) {
+        int child = heapSize;
+        while (child > 0) {
+            final int parent = (child - 1) >>> 1;
+            if (!taskOrder.before(task, heap[parent])) {
+                break;
+            }
+            heap[child] = heap[parent];
+            child = parent;
+        }
+        heap[child] = task;
+        return heapSize + 1;
+    }
+
+    private static int pop(int[] heap, int heapSize, TaskOrder taskOrder) {
+        final int last = heap[--heapSize];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && taskOrder.before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!taskOrder.before(heap[child], last)) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = last;
+        return heapSize;
+    }
+
+    private static TaskOrder taskOrder(List<Task> tasks, TaskGraph graph, OrderingPolicy policy) {
+        return switch (policy) {
+            case PRIORITY -> taskOrder(graph, policy, priorities(tasks), null);
+            case LONGEST_DURATION, CRITICAL_PATH -> taskOrder(graph, policy, null, durations(tasks));
+            default -> taskOrder(graph, policy, null, null);
+        };
+    }
+
+    /**
+     * Builds the order of ready tasks for a policy; ties are always broken by position in the job.
+     *
+     * @param priorities the priority of every task; all 0 when {@code null}.
+     * @param durations  the estimated duration of every task; all 0 when {@code null}. It is not modified.
+     */
+    private static TaskOrder taskOrder(TaskGraph graph, OrderingPolicy policy, int[] priorities, long[] durations) {
+        return switch (policy) {
+            case INPUT -> INPUT_ORDER;
+            case NAME -> (a, b) -> {
+                final int c = NAME_ORDER.compare(graph.name(a), graph.name(b));
+                return c < 0 || c == 0 && a < b;
+            };
+            case PRIORITY -> priorities == null ? INPUT_ORDER
+                    : (a, b) -> priorities[a] > priorities[b] || priorities[a] == priorities[b] && a < b;
+            case LONGEST_DURATION -> durations == null ? INPUT_ORDER : longestFirst(durations);
+            case CRITICAL_PATH -> {
+                // The longest chain of durations from every task to the end of the job, computed in reverse
+                // topological order so that the chains of all the dependents of a task are known first.
+                final long[] path = durations == null ? new long[graph.size()] : Arrays.copyOf(durations, graph.size());
+                final int[] order = sort(graph, INPUT_ORDER);
+                for (int p = order.length - 1; p >= 0; p--) {
+                    final int task = order[p];
+                    long longest = 0;
+                    for (int k = graph.dependentsFrom(task), end = graph.dependentsTo(task); k < end; k++) {
+                        longest = Math.max(longest, path[graph.dependent(k)]);
+                    }
+                    path[task] += longest;
+                }
+                yield longestFirst(path);
+            }
+        };
+    }
+
+    private static int[] priorities(List<Task> tasks) {
+        final int[] priorities = new int[tasks.size()];
+        for (int i = 0; i < priorities.length; i++) {
+            final Integer value = tasks.get(i).priority();
+            priorities[i] = value == null ? 0 : value;
+        }
+        return priorities;
+    }
+
+    private static long[] durations(List<Task> tasks) {
+        final long[] durations = new long[tasks.size()];
+        for (int i = 0; i < durations.length; i++) {
+            final Long value = tasks.get(i).estimatedDuration();
+            durations[i] = value == null ? 0 : value;
+        }
+        return durations;
+    }
+
+    private static TaskOrder longestFirst(long[] durations) {
+        return (a, b) -> durations[a] > durations[b] || durations[a] == durations[b] && a < b;
+    }
+
+    /**
+     * Strict order of the ready tasks of a sort.
+     */
+    @FunctionalInterface
+    private interface TaskOrder {
+        /**
+         * @return whether task {@code a} is sorted before task {@code b}.
+         */
+        boolean before(int a, int b);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
     }
 }
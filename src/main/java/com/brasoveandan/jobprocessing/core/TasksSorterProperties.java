@@ -0,0 +1,15 @@
+package com.brasoveandan.jobprocessing.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param parallel          whether the dependency levels of large graphs are expanded on a fork-join pool by {@link ParallelTopologicalSort}.
+ * @param parallelThreshold the number of tasks from which a graph is sorted in parallel.
+ * @param parallelism       the number of threads of the parallel sort, or 0 for one per available processor.
+ */
+@ConfigurationProperties("job-processing.sort")
+public record TasksSorterProperties(@DefaultValue("false") boolean parallel,
+                                    @DefaultValue("100000") int parallelThreshold,
+                                    @DefaultValue("0") int parallelism) {
+}
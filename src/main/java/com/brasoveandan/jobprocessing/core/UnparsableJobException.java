@@ -0,0 +1,10 @@
+package com.brasoveandan.jobprocessing.core;
+
+import lombok.experimental.StandardException;
+
+/**
+ * Thrown when a request body cannot be read as a job, in JSON or in {@link BinaryJobFormat}.
+ */
+@StandardException
+public class UnparsableJobException extends JobProcessingException {
+}
@@ -0,0 +1,87 @@
+package com.brasoveandan.jobprocessing.core;
+
+/**
+ * Encodes strings to UTF-8 in place, so that a response can be sized exactly and written without
+ * intermediate {@code String} or {@code byte[]} copies. Unpaired surrogates are encoded as {@code '?'},
+ * like {@link String#getBytes(java.nio.charset.Charset)} does.
+ */
+final class Utf8 {
+    /** The most bytes a single {@code char} can be encoded to. */
+    static final int MAX_BYTES_PER_CHAR = 3;
+
+    private Utf8() {
+    }
+
+    /**
+     * @return the number of bytes of the UTF-8 encoding of the string.
+     */
+    static int length(String value) {
+        final int chars = value.length();
+        int length = chars;
+        for (int i = 0; i < chars; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                length += 1;
+            } else if (!Character.isSurrogate(c)) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // Four bytes for the two chars of the pair.
+                length += 2;
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes the string to {@code bytes} from {@code position} if it is pure ASCII, as most commands are,
+     * in which case its UTF-8 encoding is one byte per char.
+     *
+     * @return the position after the last byte written, or -1 at the first non-ASCII char.
+     */
+    static int encodeAscii(String value, byte[] bytes, int position) {
+        final int chars = value.length();
+        for (int i = 0; i < chars; i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x80) {
+                return -1;
+            }
+            bytes[position + i] = (byte) c;
+        }
+        return position + chars;
+    }
+
+    /**
+     * Writes the UTF-8 encoding of the string, which must fit, to {@code bytes} from {@code position}.
+     *
+     * @return the position after the last byte written.
+     */
+    static int encode(String value, byte[] bytes, int position) {
+        final int chars = value.length();
+        for (int i = 0; i < chars; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                bytes[position++] = '?';
+            }
+        }
+        return position;
+    }
+}
@@ -0,0 +1,130 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.controller.AsyncJobController;
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AsyncJobController.class)
+class AsyncJobControllerTest {
+    private static final String ID = "job-id";
+
+    @TestConfiguration
+    @EnableConfigurationProperties(AsyncJobProperties.class)
+    static class Config {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private AsyncJobService asyncJobService;
+
+    private final String json = """
+            {
+              "tasks": [
+                {"name": "task-1", "command": "touch /tmp/file1"},
+                {"name": "task-2", "command": "cat /tmp/file1", "requires": ["task-1"]}
+              ]
+            }""";
+    private final Instant now = Instant.now();
+
+    @Test
+    void testSubmitJob_Accepted() throws Exception {
+        when(asyncJobService.submit(any(), eq("tenant-1"), eq(false)))
+                .thenReturn(new AsyncJobStatus(ID, AsyncJobState.QUEUED, 2, now, null, null, null));
+
+        mockMvc.perform(post("/api/jobs")
+                        .header("X-Client-Id", "tenant-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/jobs/" + ID))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+    }
+
+    @Test
+    void testSubmitJob_Rejected() throws Exception {
+        when(asyncJobService.submit(any(), any(), eq(true))).thenThrow(new JobRejectedException("Job queue is full"));
+
+        mockMvc.perform(post("/api/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void testGetStatus_NotFound() throws Exception {
+        when(asyncJobService.status(ID)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/jobs/" + ID)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetResult_NotFinished() throws Exception {
+        when(asyncJobService.status(ID)).thenReturn(Optional.of(new AsyncJobStatus(ID, AsyncJobState.RUNNING, 2, now, now, null, null)));
+
+        mockMvc.perform(get("/api/jobs/" + ID + "/result").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testGetResult_BashScript() throws Exception {
+        final var result = new JobResult(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null)));
+        when(asyncJobService.status(ID)).thenReturn(Optional.of(new AsyncJobStatus(ID, AsyncJobState.SUCCEEDED, 1, now, now, now, null)));
+        when(asyncJobService.result(ID)).thenReturn(Optional.of(result));
+        when(asyncJobService.bashScript(result)).thenReturn("script".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/jobs/" + ID + "/result").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(is("script")));
+    }
+
+    @Test
+    void testGetResult_Failed() throws Exception {
+        when(asyncJobService.status(ID)).thenReturn(Optional.of(new AsyncJobStatus(ID, AsyncJobState.FAILED, 2, now, now, now, "Unparsable JSON response")));
+        when(asyncJobService.result(ID)).thenReturn(Optional.empty());
+        when(asyncJobService.validationFailure(ID)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/jobs/" + ID + "/result").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string(is("Unparsable JSON response")));
+    }
+
+    @Test
+    void testGetResult_Invalid() throws Exception {
+        final var error = new JobValidationError(JobValidationError.Type.CIRCULAR_DEPENDENCY,
+                "Circular dependency detected: task-1 -> task-2 -> task-1", List.of(TASK_1_NAME, TASK_2_NAME, TASK_1_NAME), null);
+        when(asyncJobService.status(ID)).thenReturn(Optional.of(new AsyncJobStatus(ID, AsyncJobState.FAILED, 2, now, now, now, error.message())));
+        when(asyncJobService.result(ID)).thenReturn(Optional.empty());
+        when(asyncJobService.validationFailure(ID)).thenReturn(Optional.of(new CircularDependencyException(error.message(), List.of(error))));
+
+        mockMvc.perform(get("/api/jobs/" + ID + "/result").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].type", is("CIRCULAR_DEPENDENCY")));
+    }
+}
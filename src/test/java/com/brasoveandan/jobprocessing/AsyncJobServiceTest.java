@@ -0,0 +1,182 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncJobServiceTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Integer> processedSizes = new CopyOnWriteArrayList<>();
+    private final TasksSorter tasksSorter = new TasksSorter() {
+        @Override
+        public List<Task> sortTasks(List<Task> tasks, OrderingPolicy policy) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processedSizes.add(tasks.size());
+            return super.sortTasks(tasks, policy);
+        }
+    };
+    private final JobResultCache jobResultCache = new JobResultCache(new JobResultCacheProperties(false, DataSize.ofBytes(1), Duration.ofMinutes(1)),
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), new StaticListableBeanFactory().getBeanProvider(JobStore.class));
+    private AsyncJobService subject;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        subject.shutdown();
+    }
+
+    @Test
+    void testSubmit_processesJob() throws InterruptedException {
+        subject = service(1, 10, 10);
+        release.countDown();
+
+        final var submitted = subject.submit(job(2), "client", false);
+        assertEquals(2, submitted.taskCount());
+
+        final var status = awaitFinished(submitted.id());
+        assertEquals(AsyncJobState.SUCCEEDED, status.state());
+        assertNotNull(status.completedAt());
+        final var result = subject.result(submitted.id()).orElseThrow();
+        assertEquals(2, result.orderedTasks().size());
+        assertTrue(new String(subject.json(result)).startsWith("[{\"name\":\"task-1\""));
+    }
+
+    @Test
+    void testSubmit_failedJob() throws InterruptedException {
+        subject = service(1, 10, 10);
+        release.countDown();
+        final var job = new Job(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_2_NAME)),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME))));
+
+        final var status = awaitFinished(subject.submit(job, "client", true).id());
+
+        assertEquals(AsyncJobState.FAILED, status.state());
+        assertEquals("Circular dependency detected: task-1 -> task-2 -> task-1", status.error());
+        assertTrue(subject.result(status.id()).isEmpty());
+        assertInstanceOf(CircularDependencyException.class, subject.validationFailure(status.id()).orElseThrow());
+    }
+
+    @Test
+    void testSubmit_rejectsWhenQueueIsFull() {
+        subject = service(1, 2, 10);
+        subject.submit(job(1), "client-1", false);
+        subject.submit(job(1), "client-2", false);
+
+        assertThatThrownBy(() -> subject.submit(job(1), "client-3", false))
+                .isInstanceOf(JobRejectedException.class)
+                .hasMessage("Job queue is full");
+    }
+
+    @Test
+    void testSubmit_rejectsWhenClientShareIsFull() {
+        subject = service(1, 10, 2);
+        subject.submit(job(1), "greedy", false);
+        subject.submit(job(1), "greedy", false);
+
+        assertThatThrownBy(() -> subject.submit(job(1), "greedy", false))
+                .isInstanceOf(JobRejectedException.class);
+        assertEquals(AsyncJobState.QUEUED, subject.submit(job(1), "polite", false).state());
+    }
+
+    @Test
+    void testSubmit_prioritizesOtherClientsThenSmallJobs() throws InterruptedException {
+        subject = service(1, 10, 10);
+        final var blocker = subject.submit(job(1), "client-1", false);
+        final var ids = new ArrayList<String>();
+        ids.add(subject.submit(job(30), "client-1", false).id());
+        ids.add(subject.submit(job(20), "client-1", false).id());
+        ids.add(subject.submit(job(40), "client-2", false).id());
+        ids.add(subject.submit(job(10), "client-3", false).id());
+
+        release.countDown();
+        awaitFinished(blocker.id());
+        for (String id : ids) {
+            awaitFinished(id);
+        }
+
+        assertEquals(List.of(1, 10, 40, 30, 20), processedSizes);
+    }
+
+    @Test
+    void testSubmit_largeJobIsBypassedAtMostMaxBypassesTimes() throws InterruptedException {
+        subject = service(1, 10, 10, 2, 10);
+        final var blocker = subject.submit(job(1), "client-1", false);
+        final var ids = new ArrayList<String>();
+        ids.add(subject.submit(job(50), "client-2", false).id());
+        for (int i = 0; i < 3; i++) {
+            ids.add(subject.submit(job(1), "client-" + (3 + i), false).id());
+        }
+
+        release.countDown();
+        awaitFinished(blocker.id());
+        for (String id : ids) {
+            awaitFinished(id);
+        }
+
+        assertEquals(List.of(1, 1, 50, 1, 1), processedSizes);
+    }
+
+    @Test
+    void testSubmit_keepsAtMostMaxFinishedJobs() throws InterruptedException {
+        subject = service(1, 10, 10, 100, 2);
+        release.countDown();
+        final var ids = new ArrayList<String>();
+        for (int i = 0; i < 4; i++) {
+            final var id = subject.submit(job(1), "client", false).id();
+            awaitFinished(id);
+            ids.add(id);
+        }
+
+        assertEquals(2, ids.stream().filter(id -> subject.status(id).isPresent()).count());
+    }
+
+    private AsyncJobService service(int workers, int queueCapacity, int maxJobsPerClient) {
+        return service(workers, queueCapacity, maxJobsPerClient, 100, 100);
+    }
+
+    private AsyncJobService service(int workers, int queueCapacity, int maxJobsPerClient, int maxBypasses, int maxFinishedJobs) {
+        return new AsyncJobService(new JobProcessorService(tasksSorter), jobResultCache, new ObjectMapper(),
+                new JobMetrics(new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)),
+                new AsyncJobProperties(workers, queueCapacity, maxJobsPerClient, maxBypasses, Duration.ofSeconds(1), Duration.ofMinutes(1), maxFinishedJobs));
+    }
+
+    private AsyncJobStatus awaitFinished(String id) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            final var status = subject.status(id).orElseThrow();
+            if (status.state().isFinished()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " did not finish");
+    }
+
+    private static Job job(int size) {
+        final var tasks = new ArrayList<Task>(size);
+        for (int i = 1; i <= size; i++) {
+            tasks.add(new Task("task-" + i, "echo " + i, i == 1 ? null : List.of("task-" + (i - 1))));
+        }
+        return new Job(tasks);
+    }
+}
@@ -0,0 +1,71 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.BinaryJobFormat;
+import com.brasoveandan.jobprocessing.core.JobProcessingException;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BinaryJobFormatTest {
+
+    @Test
+    void testJobRoundTrip() throws IOException {
+        final var tasks = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, null, List.of(TASK_3_NAME, "unknown")),
+                new Task(TASK_3_NAME, "echo 'héllo'", List.of(TASK_1_NAME))
+        );
+        final var out = new ByteArrayOutputStream();
+        BinaryJobFormat.writeJob(tasks, out);
+
+        final TaskGraph graph = BinaryJobFormat.readGraph(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(3, graph.size());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(TASK_2_NAME, graph.name(1));
+        assertNull(graph.command(1));
+        assertEquals("echo 'héllo'", graph.command(2));
+        assertEquals(1, graph.inDegree(1));
+        assertEquals(1, graph.inDegree(2));
+    }
+
+    @Test
+    void testOrderRoundTrip() throws IOException {
+        final int[] order = {3, 0, 200, 70_000, 1};
+        final var out = new ByteArrayOutputStream();
+        BinaryJobFormat.writeOrder(order, out);
+
+        assertEquals(4 + 1 + 1 + 1 + 2 + 3 + 1, out.size());
+        assertArrayEquals(order, BinaryJobFormat.readOrder(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void testReadGraph_invalid() throws IOException {
+        assertThatThrownBy(() -> BinaryJobFormat.readGraph(new ByteArrayInputStream("{\"tasks\": []}".getBytes())))
+                .isInstanceOf(JobProcessingException.class)
+                .hasMessageStartingWith("Unparsable binary request: unsupported header");
+
+        final var out = new ByteArrayOutputStream();
+        BinaryJobFormat.writeJob(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null), new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME))), out);
+        final byte[] bytes = out.toByteArray();
+        final byte[] outOfRange = bytes.clone();
+        outOfRange[bytes.length - 1] = 5;
+        assertThatThrownBy(() -> BinaryJobFormat.readGraph(new ByteArrayInputStream(outOfRange)))
+                .hasMessage("Unparsable binary request: task index 5 out of 2");
+        assertThatThrownBy(() -> BinaryJobFormat.readGraph(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3))))
+                .isInstanceOf(EOFException.class);
+    }
+}
@@ -0,0 +1,152 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.CircularDependencyException;
+import com.brasoveandan.jobprocessing.core.DynamicTaskGraph;
+import com.brasoveandan.jobprocessing.core.JobProcessingException;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamicTaskGraphTest {
+    private final TasksSorter tasksSorter = new TasksSorter();
+
+    @Test
+    void testAddRequirement_reordersAffectedTasks() {
+        final var graph = create(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, null)
+        );
+
+        graph.addRequirement(TASK_1_NAME, TASK_3_NAME);
+
+        assertEquals(List.of(TASK_3_NAME, TASK_1_NAME, TASK_2_NAME), names(graph));
+        assertEquals(2, graph.edgeCount());
+    }
+
+    @Test
+    void testAddRequirement_circularDependency() {
+        final var graph = create(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME))
+        );
+        final var before = graph.orderedTasks();
+
+        assertThatThrownBy(() -> graph.addRequirement(TASK_1_NAME, TASK_3_NAME))
+                .isInstanceOf(CircularDependencyException.class);
+        assertThatThrownBy(() -> graph.addRequirement(TASK_1_NAME, TASK_1_NAME))
+                .isInstanceOf(CircularDependencyException.class);
+        assertEquals(before, graph.orderedTasks());
+    }
+
+    @Test
+    void testAddAndRemoveTask() {
+        final var graph = create(new Task(TASK_1_NAME, TASK_1_COMMAND, null));
+
+        graph.addTask(new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)));
+        graph.addTask(new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME)));
+        graph.removeTask(TASK_2_NAME);
+
+        assertEquals(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, List.of()), new Task(TASK_3_NAME, TASK_3_COMMAND, List.of())),
+                graph.orderedTasks());
+        assertEquals(0, graph.edgeCount());
+        assertThatThrownBy(() -> graph.addTask(new Task(TASK_1_NAME, TASK_1_COMMAND, null)))
+                .hasMessage("Duplicate task name: " + TASK_1_NAME);
+        assertThatThrownBy(() -> graph.addTask(new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_2_NAME))))
+                .isInstanceOf(JobProcessingException.class)
+                .hasMessage("Unknown task: " + TASK_2_NAME);
+    }
+
+    @Test
+    void testRandomPatches_keepTopologicalOrder() {
+        final var random = new Random(42);
+        final int size = 200;
+        final var graph = DynamicTaskGraph.of(List.of(), new int[0]);
+        final Map<String, Set<String>> requires = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            final String name = "task-" + random.nextInt(size);
+            final String requiredName = "task-" + random.nextInt(size);
+            final int operation = random.nextInt(10);
+            if (!requires.containsKey(name)) {
+                graph.addTask(new Task(name, "echo " + name, null));
+                requires.put(name, new HashSet<>());
+            } else if (operation == 0) {
+                graph.removeTask(name);
+                requires.remove(name);
+                requires.values().forEach(required -> required.remove(name));
+            } else if (operation < 3 && requires.containsKey(requiredName)) {
+                graph.removeRequirement(name, requiredName);
+                requires.get(name).remove(requiredName);
+            } else if (requires.containsKey(requiredName)) {
+                final boolean cycle = dependsOn(requires, requiredName, name);
+                try {
+                    graph.addRequirement(name, requiredName);
+                    requires.get(name).add(requiredName);
+                    assertTrue(!cycle, "Missed a cycle");
+                } catch (CircularDependencyException e) {
+                    assertTrue(cycle, "Reported a cycle that does not exist");
+                }
+            }
+            assertTopologicalOrder(requires, graph.orderedTasks());
+            assertEquals(requires.values().stream().mapToInt(Set::size).sum(), graph.edgeCount());
+        }
+    }
+
+    @Test
+    void testOf_matchesSortedOrder() {
+        final var tasks = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME, TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME)),
+                new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_2_NAME, TASK_3_NAME))
+        );
+
+        assertEquals(tasksSorter.sortTasks(tasks).stream().map(Task::name).toList(), names(DynamicTaskGraph.of(tasks, tasksSorter.sortGraph(TaskGraph.of(tasks)))));
+    }
+
+    private DynamicTaskGraph create(Task... tasks) {
+        final var list = List.of(tasks);
+        return DynamicTaskGraph.of(list, tasksSorter.sortGraph(TaskGraph.of(list)));
+    }
+
+    private static List<String> names(DynamicTaskGraph graph) {
+        return graph.orderedTasks().stream().map(Task::name).toList();
+    }
+
+    private static boolean dependsOn(Map<String, Set<String>> requires, String name, String requiredName) {
+        final Deque<String> stack = new ArrayDeque<>(List.of(name));
+        final Set<String> seen = new HashSet<>();
+        while (!stack.isEmpty()) {
+            final String current = stack.pop();
+            if (current.equals(requiredName)) {
+                return true;
+            }
+            if (seen.add(current)) {
+                stack.addAll(requires.get(current));
+            }
+        }
+        return false;
+    }
+
+    private static void assertTopologicalOrder(Map<String, Set<String>> requires, List<Task> orderedTasks) {
+        assertEquals(requires.size(), orderedTasks.size());
+        final Map<String, Integer> position = new HashMap<>();
+        for (Task task : orderedTasks) {
+            assertEquals(requires.get(task.name()), new HashSet<>(task.requires()));
+            for (String required : task.requires()) {
+                assertTrue(position.containsKey(required), required + " is not before " + task.name());
+            }
+            position.put(task.name(), position.size());
+        }
+    }
+}
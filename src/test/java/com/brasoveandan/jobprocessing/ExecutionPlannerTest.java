@@ -0,0 +1,82 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.ExecutionPlanner;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.brasoveandan.jobprocessing.core.TasksSorterProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExecutionPlannerTest {
+    private final ExecutionPlanner subject = new ExecutionPlanner(new TasksSorter());
+
+    @Test
+    void testPlan() {
+        final var task1 = new Task(TASK_1_NAME, TASK_1_COMMAND, null);
+        final var task2 = new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME, TASK_3_NAME));
+        final var task3 = new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME));
+        final var task4 = new Task(TASK_4_NAME, TASK_4_COMMAND, null);
+        final var task5 = new Task("task-5", "ls /tmp", List.of(TASK_4_NAME));
+
+        final var plan = subject.plan(List.of(task1, task2, task3, task4, task5));
+
+        assertEquals(3, plan.levels().size());
+        assertEquals(List.of(task1, task4), plan.levels().get(0).stream().sorted(Comparator.comparing(Task::name)).toList());
+        assertEquals(List.of(task3, task5), plan.levels().get(1).stream().sorted(Comparator.comparing(Task::name)).toList());
+        assertEquals(List.of(task2), plan.levels().get(2));
+        assertEquals(List.of(TASK_1_NAME, TASK_3_NAME, TASK_2_NAME), plan.criticalPath());
+        assertEquals(2, plan.maxParallelism());
+    }
+
+    @Test
+    void testPlan_sameWithParallelLevels() {
+        final var tasks = new ArrayList<Task>();
+        for (int i = 0; i < 5_000; i++) {
+            final List<String> requires = i < 1_000 ? null : List.of("task-" + ((i + 1) % 1_000), "task-" + (i - 1_000));
+            tasks.add(new Task("task-" + i, "echo " + i, requires));
+        }
+        final var parallelSorter = new TasksSorter(new TasksSorterProperties(true, 1, 4));
+        try {
+            assertEquals(subject.plan(tasks), new ExecutionPlanner(parallelSorter).plan(tasks));
+        } finally {
+            parallelSorter.shutdown();
+        }
+    }
+
+    @Test
+    void testPlan_empty() {
+        final var plan = subject.plan(List.of());
+
+        assertEquals(0, plan.levels().size());
+        assertEquals(0, plan.criticalPath().size());
+        assertEquals(0, plan.maxParallelism());
+    }
+
+    @Test
+    void testPlan_unknownRequirement() {
+        final var request = List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_2_NAME)));
+
+        assertThatThrownBy(() -> subject.plan(request))
+                .isInstanceOf(JobValidationException.class)
+                .hasMessage("Task task-1 requires unknown task task-2");
+    }
+
+    @Test
+    void testPlan_circularDependency() {
+        final var request = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))
+        );
+
+        assertThatCode(() -> subject.plan(request)).hasMessage("Circular dependency detected: task-1 -> task-3 -> task-1");
+    }
+}
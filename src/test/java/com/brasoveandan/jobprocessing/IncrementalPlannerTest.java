@@ -0,0 +1,92 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalPlannerTest {
+    @TempDir
+    private Path directory;
+
+    private final TasksSorter tasksSorter = new TasksSorter();
+    private TaskFingerprints taskFingerprints;
+    private TaskResultStore taskResultStore;
+    private IncrementalPlanner subject;
+    private Path input;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        taskFingerprints = new TaskFingerprints(directory, 1_000, name -> null);
+        taskResultStore = new TaskResultStore(new MemoizationProperties(true, directory.resolve("results").toString(), ".", 1_000));
+        subject = new IncrementalPlanner(tasksSorter, taskResultStore, taskFingerprints);
+        input = Files.writeString(directory.resolve("input.txt"), "hello");
+        tasks = List.of(
+                new Task("package", "true", List.of("test", "lint"), null, null, null, List.of("VERSION")),
+                new Task("compile", "true", null, null, null, null, List.of("CC")),
+                new Task("test", "cat " + input, List.of("compile"), null, null, List.of(input.toString()), null),
+                new Task("lint", "true", List.of("compile"), null, null, null, List.of("LINT_RULES")));
+    }
+
+    @Test
+    void testPlan_nothingRecorded() {
+        final var plan = subject.plan(tasks, OrderingPolicy.INPUT);
+
+        assertEquals(tasksSorter.sortTasks(tasks), plan.orderedTasks());
+        assertEquals(List.of(), plan.upToDateTasks());
+    }
+
+    @Test
+    void testPlan_allRecorded() {
+        recordAll();
+
+        final var plan = subject.plan(tasks, OrderingPolicy.INPUT);
+
+        assertEquals(List.of(), plan.orderedTasks());
+        assertEquals(List.of("compile", "test", "lint", "package"), plan.upToDateTasks());
+    }
+
+    @Test
+    void testPlan_changedInputDirtiesTaskAndDependents() throws IOException {
+        recordAll();
+
+        Files.writeString(input, "hello again");
+        final var plan = subject.plan(tasks, OrderingPolicy.NAME);
+
+        assertEquals(List.of(tasks.get(2), tasks.get(0)), plan.orderedTasks());
+        assertEquals(List.of("compile", "lint"), plan.upToDateTasks());
+    }
+
+    @Test
+    void testPlan_undeclaredTaskAlwaysRuns() {
+        tasks = List.of(tasks.get(0), tasks.get(1), tasks.get(2), new Task("lint", "true", List.of("compile")));
+        recordAll();
+
+        final var plan = subject.plan(tasks, OrderingPolicy.INPUT);
+
+        assertEquals(List.of(tasks.get(3), tasks.get(0)), plan.orderedTasks());
+        assertEquals(List.of("compile", "test"), plan.upToDateTasks());
+    }
+
+    private void recordAll() {
+        final var graph = JobValidator.validate(tasks);
+        final String[] fingerprints = taskFingerprints.of(tasks, graph, tasksSorter.sortGraph(graph));
+        for (int i = 0; i < tasks.size(); i++) {
+            if (fingerprints[i] == null) {
+                continue;
+            }
+            taskResultStore.recordSuccess(fingerprints[i], new TaskExecution(tasks.get(i).name(), TaskStatus.SUCCEEDED,
+                    0, Instant.EPOCH, Duration.ZERO));
+        }
+    }
+}
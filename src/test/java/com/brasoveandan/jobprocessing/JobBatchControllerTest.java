@@ -0,0 +1,69 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.controller.JobBatchController;
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JobBatchController.class)
+@Import({JobBatchProcessor.class, JobProcessorService.class, TasksSorter.class, JobResultCache.class})
+class JobBatchControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String json = """
+            [
+              {"tasks": [
+                {"name": "task-2", "command": "cat /tmp/file1", "requires": ["task-1"]},
+                {"name": "task-1", "command": "touch /tmp/file1"}
+              ]},
+              {"tasks": [
+                {"name": "task-1", "command": "touch /tmp/file1", "requires": ["task-3"]},
+                {"name": "task-3", "command": "echo 'Hello World!' > /tmp/file1", "requires": ["task-1"]}
+              ]}
+            ]""";
+
+    @Test
+    void testProcessBatch() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        final List<String> lines = Arrays.stream(body.split("\n")).sorted().toList();
+        assertEquals(2, lines.size());
+        assertEquals("{\"index\":0,\"orderedTasks\":[{\"name\":\"task-1\",\"command\":\"touch /tmp/file1\"},{\"name\":\"task-2\",\"command\":\"cat /tmp/file1\"}]}", lines.get(0));
+        assertTrue(lines.get(1).startsWith("{\"index\":1,\"error\":\"Circular dependency detected"), lines.get(1));
+    }
+
+    @Test
+    void testProcessBatch_tooManyJobs() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content("[" + "{\"tasks\": []},".repeat(10_000) + "{\"tasks\": []}]"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().string(containsString("exceeds the maximum of 10000")));
+    }
+}
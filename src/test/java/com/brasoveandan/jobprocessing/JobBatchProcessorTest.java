@@ -0,0 +1,87 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobBatchProcessorTest {
+    private final JobResultCache jobResultCache = new JobResultCache(new JobResultCacheProperties(true, DataSize.ofMegabytes(1), Duration.ofMinutes(1)),
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), new StaticListableBeanFactory().getBeanProvider(JobStore.class));
+    private final JobBatchProcessor subject = new JobBatchProcessor(new JobProcessorService(new TasksSorter()), jobResultCache,
+            new JobBatchProperties(4, 100));
+
+    @AfterEach
+    void tearDown() {
+        subject.shutdown();
+    }
+
+    @Test
+    void testProcess_isolatesFailingJobs() throws IOException {
+        final var job = new Job(List.of(
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)),
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null)
+        ));
+        final var cyclicJob = new Job(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))
+        ));
+        final List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            jobs.add(i == 7 ? cyclicJob : job);
+        }
+        final List<JobBatchResult> results = new ArrayList<>();
+
+        subject.process(jobs, results::add);
+
+        assertEquals(50, results.size());
+        results.sort(Comparator.comparingInt(JobBatchResult::index));
+        for (int i = 0; i < 50; i++) {
+            final var result = results.get(i);
+            assertEquals(i, result.index());
+            if (i == 7) {
+                assertNull(result.orderedTasks());
+                assertEquals("Circular dependency detected: task-1 -> task-3 -> task-1", result.error());
+            } else {
+                assertNull(result.error());
+                assertEquals(List.of(TASK_1_NAME, TASK_2_NAME), result.orderedTasks().stream().map(Task::name).toList());
+            }
+        }
+    }
+
+    @Test
+    void testProcess_tooManyJobs() {
+        final var jobs = new ArrayList<Job>();
+        for (int i = 0; i < 101; i++) {
+            jobs.add(new Job(List.of()));
+        }
+
+        assertThatThrownBy(() -> subject.process(jobs, result -> fail()))
+                .isInstanceOf(BatchTooLargeException.class)
+                .hasMessage("Batch of 101 jobs exceeds the maximum of 100");
+    }
+
+    @Test
+    void testProcess_sinkFailureStopsTheBatch() {
+        final var jobs = new ArrayList<Job>();
+        for (int i = 0; i < 20; i++) {
+            jobs.add(new Job(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null))));
+        }
+
+        assertThatThrownBy(() -> subject.process(jobs, result -> {
+            throw new IOException("Broken pipe");
+        })).isInstanceOf(IOException.class);
+    }
+}
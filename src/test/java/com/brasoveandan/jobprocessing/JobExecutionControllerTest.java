@@ -0,0 +1,123 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.controller.JobExecutionController;
+import com.brasoveandan.jobprocessing.core.ExecutionOptions;
+import com.brasoveandan.jobprocessing.core.ExecutionReport;
+import com.brasoveandan.jobprocessing.core.FailurePolicy;
+import com.brasoveandan.jobprocessing.core.IncrementalPlanner;
+import com.brasoveandan.jobprocessing.core.JobExecutor;
+import com.brasoveandan.jobprocessing.core.JobProcessingException;
+import com.brasoveandan.jobprocessing.core.JobValidationError;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.TaskExecution;
+import com.brasoveandan.jobprocessing.core.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JobExecutionController.class)
+@TestPropertySource(properties = "job-processing.execution.enabled=true")
+class JobExecutionControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private JobExecutor jobExecutor;
+
+    private final String json = """
+            {
+              "tasks": [
+                {"name": "task-1", "command": "touch /tmp/file1"},
+                {"name": "task-3", "command": "echo 'Hello World!' > /tmp/file1", "requires": ["task-1"]}
+              ]
+            }""";
+
+    @Test
+    public void testExecuteJob_Success() throws Exception {
+        when(jobExecutor.execute(anyList(), any(ExecutionOptions.class))).thenReturn(new ExecutionReport(true, Duration.ofMillis(20), List.of(
+                new TaskExecution(TASK_1_NAME, TaskStatus.SUCCEEDED, 0, Instant.now(), Duration.ofMillis(10)),
+                new TaskExecution(TASK_3_NAME, TaskStatus.SUCCEEDED, 0, Instant.now(), Duration.ofMillis(10)))));
+
+        mockMvc.perform(post("/api/executions")
+                        .param("maxConcurrency", "2")
+                        .param("failurePolicy", FailurePolicy.CONTINUE.name())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(true)))
+                .andExpect(jsonPath("$.tasks[0].name", is(TASK_1_NAME)))
+                .andExpect(jsonPath("$.tasks[1].status", is("SUCCEEDED")));
+        verify(jobExecutor).execute(anyList(), eq(new ExecutionOptions(2, FailurePolicy.CONTINUE, null)));
+    }
+
+    @Test
+    public void testExecuteJob_InvalidJob() throws Exception {
+        when(jobExecutor.execute(anyList(), any(ExecutionOptions.class))).thenThrow(new JobValidationException("Task task-3 requires unknown task task-5",
+                List.of(new JobValidationError(JobValidationError.Type.MISSING_DEPENDENCY, "Task task-3 requires unknown task task-5", List.of(TASK_3_NAME, "task-5"), null))));
+
+        mockMvc.perform(post("/api/executions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Task task-3 requires unknown task task-5")))
+                .andExpect(jsonPath("$.errors[0].type", is("MISSING_DEPENDENCY")));
+    }
+
+    @Test
+    public void testExecuteJob_IncrementalWithoutMemoization() throws Exception {
+        when(jobExecutor.supportsIncremental()).thenReturn(false);
+
+        mockMvc.perform(post("/api/executions")
+                        .param("incremental", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(IncrementalPlanner.REQUIRES_MEMOIZATION));
+        verify(jobExecutor, never()).execute(anyList(), any(ExecutionOptions.class));
+    }
+
+    @Test
+    public void testExecuteJob_InvalidMaxConcurrency() throws Exception {
+        mockMvc.perform(post("/api/executions")
+                        .param("maxConcurrency", "0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("maxConcurrency must be at least 1"));
+        verify(jobExecutor, never()).execute(anyList(), any(ExecutionOptions.class));
+    }
+
+    @Test
+    public void testExecuteJob_ProcessingError() throws Exception {
+        when(jobExecutor.execute(anyList(), any(ExecutionOptions.class))).thenThrow(new JobProcessingException("Could not start bash"));
+
+        mockMvc.perform(post("/api/executions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string("Could not start bash"));
+    }
+}
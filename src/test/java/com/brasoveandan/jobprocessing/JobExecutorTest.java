@@ -0,0 +1,201 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class JobExecutorTest {
+    private final JobExecutor subject = new JobExecutor(new JobExecutionProperties(true, 64, "bash"));
+
+    @Test
+    void testExecute_runsIndependentTasksConcurrently() {
+        final var tasks = new ArrayList<Task>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(new Task("sleep-" + i, "sleep 0.5", null));
+        }
+        tasks.add(new Task("last", "true", tasks.stream().map(Task::name).toList()));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(8, FailurePolicy.FAIL_FAST, null));
+
+        assertTrue(report.succeeded());
+        assertThat(report.duration()).isLessThan(Duration.ofMillis(2_500));
+        final var last = report.tasks().get(8);
+        assertEquals(TaskStatus.SUCCEEDED, last.status());
+        assertEquals(0, last.exitCode());
+        report.tasks().subList(0, 8).forEach(sleep -> assertThat(sleep.startedAt()).isBefore(last.startedAt()));
+    }
+
+    @Test
+    void testExecute_respectsConcurrencyLimit() {
+        final var tasks = List.of(
+                new Task("a", "sleep 0.3", null),
+                new Task("b", "sleep 0.3", null),
+                new Task("c", "sleep 0.3", null));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(1, FailurePolicy.FAIL_FAST, null));
+
+        assertTrue(report.succeeded());
+        assertThat(report.duration()).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void testExecute_continueOnError() {
+        final var tasks = List.of(
+                new Task("fails", "exit 3", null),
+                new Task("blocked", "true", List.of("fails")),
+                new Task("blocked-transitively", "true", List.of("blocked")),
+                new Task("independent", "sleep 0.2", null));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(4, FailurePolicy.CONTINUE, null));
+
+        assertFalse(report.succeeded());
+        assertEquals(TaskStatus.FAILED, report.tasks().get(0).status());
+        assertEquals(3, report.tasks().get(0).exitCode());
+        assertEquals(TaskStatus.SKIPPED, report.tasks().get(1).status());
+        assertEquals(TaskStatus.SKIPPED, report.tasks().get(2).status());
+        assertEquals(TaskStatus.SUCCEEDED, report.tasks().get(3).status());
+    }
+
+    @Test
+    void testExecute_failFast() {
+        final var tasks = List.of(
+                new Task("fails", "false", null),
+                new Task("slow", "sleep 0.5", null),
+                new Task("after-slow", "true", List.of("slow")));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(4, FailurePolicy.FAIL_FAST, null));
+
+        assertFalse(report.succeeded());
+        assertEquals(TaskStatus.FAILED, report.tasks().get(0).status());
+        assertEquals(TaskStatus.SUCCEEDED, report.tasks().get(1).status());
+        assertEquals(TaskStatus.SKIPPED, report.tasks().get(2).status());
+    }
+
+    @Test
+    void testExecute_timeout() {
+        final var tasks = List.of(new Task("hangs", "sleep 10", null));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(1, FailurePolicy.FAIL_FAST, Duration.ofMillis(200)));
+
+        assertFalse(report.succeeded());
+        assertNull(report.tasks().get(0).exitCode());
+        assertThat(report.duration()).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testExecute_incremental(@TempDir Path directory) throws IOException {
+        final Path input = Files.writeString(directory.resolve("input.txt"), "hello");
+        final var incrementalSubject = new JobExecutor(new JobExecutionProperties(true, 64, "bash"),
+                new IncrementalPlanner(new TasksSorter(), new TaskResultStore(
+                        new MemoizationProperties(true, directory.resolve("results").toString(), ".", 1_000)),
+                        new TaskFingerprints(directory, 1_000, name -> null)));
+        final var tasks = List.of(
+                new Task("compile", "true", null, null, null, null, List.of("CC")),
+                new Task("test", "cat " + input, List.of("compile"), null, null, List.of(input.toString()), null),
+                new Task("package", "true", List.of("test"), null, null, null, List.of("VERSION")),
+                new Task("stamp", "true", List.of("compile")));
+        final var options = new ExecutionOptions(4, FailurePolicy.FAIL_FAST, null, true);
+
+        final var first = incrementalSubject.execute(tasks, options);
+        final var second = incrementalSubject.execute(tasks, options);
+        Files.writeString(input, "hello again");
+        final var third = incrementalSubject.execute(tasks, options);
+
+        assertEquals(List.of(TaskStatus.SUCCEEDED, TaskStatus.SUCCEEDED, TaskStatus.SUCCEEDED, TaskStatus.SUCCEEDED), statuses(first));
+        assertTrue(second.succeeded());
+        // stamp declares nothing, so it always runs.
+        assertEquals(List.of(TaskStatus.UP_TO_DATE, TaskStatus.UP_TO_DATE, TaskStatus.UP_TO_DATE, TaskStatus.SUCCEEDED), statuses(second));
+        assertEquals(List.of(TaskStatus.UP_TO_DATE, TaskStatus.SUCCEEDED, TaskStatus.SUCCEEDED, TaskStatus.SUCCEEDED), statuses(third));
+    }
+
+    @Test
+    void testExecute_incrementalWithoutMemoization() {
+        final var tasks = List.of(new Task("a", "true", null));
+
+        assertFalse(subject.supportsIncremental());
+        assertThatCode(() -> subject.execute(tasks, new ExecutionOptions(1, FailurePolicy.FAIL_FAST, null, true)))
+                .isInstanceOf(JobProcessingException.class);
+    }
+
+    @Test
+    void testExecute_unexpectedErrorFailsTask(@TempDir Path directory) {
+        final var taskResultStore = new TaskResultStore(new MemoizationProperties(true, directory.resolve("results").toString(), ".", 1_000)) {
+            @Override
+            public void recordSuccess(String fingerprint, TaskExecution execution) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        final var incrementalSubject = new JobExecutor(new JobExecutionProperties(true, 64, "bash"),
+                new IncrementalPlanner(new TasksSorter(), taskResultStore, new TaskFingerprints(directory, 1_000, name -> null)));
+        final var tasks = List.of(
+                new Task("compile", "true", null, null, null, null, List.of("CC")),
+                new Task("after", "true", List.of("compile")));
+
+        final var report = incrementalSubject.execute(tasks, new ExecutionOptions(1, FailurePolicy.FAIL_FAST, null, true));
+
+        assertFalse(report.succeeded());
+        assertEquals(List.of(TaskStatus.FAILED, TaskStatus.SKIPPED), statuses(report));
+    }
+
+    @Test
+    void testExecutionOptions() {
+        assertEquals(FailurePolicy.FAIL_FAST, new ExecutionOptions(1, null, null).failurePolicy());
+        assertThatCode(() -> new ExecutionOptions(0, FailurePolicy.FAIL_FAST, null))
+                .isInstanceOf(JobProcessingException.class)
+                .hasMessage("maxConcurrency must be positive");
+    }
+
+    @Test
+    void testExecute_nullCommandFails() {
+        final var tasks = List.of(
+                new Task("no-command", null, null),
+                new Task("after", "true", List.of("no-command")));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(1, FailurePolicy.CONTINUE, Duration.ofSeconds(5)));
+
+        assertFalse(report.succeeded());
+        assertEquals(TaskStatus.FAILED, report.tasks().get(0).status());
+        assertNull(report.tasks().get(0).exitCode());
+        assertEquals(TaskStatus.SKIPPED, report.tasks().get(1).status());
+    }
+
+    @Test
+    void testExecute_timeoutKillsChildProcesses(@TempDir Path directory) throws Exception {
+        final Path marker = directory.resolve("marker");
+        final var tasks = List.of(new Task("hangs", "(sleep 1; touch " + marker + ") & wait", null));
+
+        final var report = subject.execute(tasks, new ExecutionOptions(1, FailurePolicy.FAIL_FAST, Duration.ofMillis(200)));
+        Thread.sleep(1_500);
+
+        assertFalse(report.succeeded());
+        assertFalse(Files.exists(marker));
+    }
+
+    @Test
+    void testExecute_circularDependency() {
+        final var tasks = List.of(
+                new Task("a", "true", List.of("b")),
+                new Task("b", "true", List.of("a")));
+
+        assertThatCode(() -> subject.execute(tasks, new ExecutionOptions(1, FailurePolicy.FAIL_FAST, null)))
+                .hasMessage("Circular dependency detected: a -> b -> a");
+    }
+
+    private static List<TaskStatus> statuses(ExecutionReport report) {
+        return report.tasks().stream().map(TaskExecution::status).toList();
+    }
+}
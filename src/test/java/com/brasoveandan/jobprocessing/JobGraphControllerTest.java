@@ -0,0 +1,186 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.controller.JobGraphController;
+import com.brasoveandan.jobprocessing.core.JobGraphRegistry;
+import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JobGraphController.class)
+@Import({JobGraphRegistry.class, JobProcessorService.class, TasksSorter.class})
+class JobGraphControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String json = """
+            {
+              "tasks": [
+                {"name": "task-1", "command": "touch /tmp/file1"},
+                {"name": "task-2", "command": "cat /tmp/file1", "requires": ["task-1"]},
+                {"name": "task-3", "command": "echo 'Hello World!' > /tmp/file1"}
+              ]
+            }""";
+
+    @Test
+    void testPatchGraph() throws Exception {
+        final String id = createGraph();
+
+        mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-1/requires/task-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.edgeCount", is(2)));
+        mockMvc.perform(post("/api/graphs/" + id + "/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"task-4\", \"command\": \"rm /tmp/file1\", \"requires\": [\"task-2\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskCount", is(4)));
+
+        mockMvc.perform(get("/api/graphs/" + id + "/orderedTasks").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name").value(contains("task-3", "task-1", "task-2", "task-4")));
+    }
+
+    @Test
+    void testPatchGraph_circularDependency() throws Exception {
+        final String id = createGraph();
+
+        mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-1/requires/task-2"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/graphs/" + id + "/tasks/task-5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(is("Unknown task: task-5")));
+    }
+
+    @Test
+    void testPatchGraph_removals() throws Exception {
+        final String id = createGraph();
+
+        mockMvc.perform(delete("/api/graphs/" + id + "/tasks/task-2/requires/task-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.edgeCount", is(0)));
+        mockMvc.perform(delete("/api/graphs/" + id + "/tasks/task-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskCount", is(2)));
+        mockMvc.perform(get("/api/graphs/" + id + "/orderedTasks").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith(JobProcessorService.BASH_SCRIPT_HEADER + "touch /tmp/file1\n")));
+        mockMvc.perform(delete("/api/graphs/" + id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/graphs/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPatchGraph_invalidChanges() throws Exception {
+        final String id = createGraph();
+
+        mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-1/requires/task-1"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string(is("Circular dependency detected: task-1 requires itself")));
+        mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-1/requires/task-5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(is("Unknown task: task-5")));
+        mockMvc.perform(post("/api/graphs/" + id + "/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"task-3\", \"command\": \"ls\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(is("Duplicate task name: task-3")));
+    }
+
+    @Test
+    void testCreateGraph_invalidJob() throws Exception {
+        mockMvc.perform(post("/api/graphs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"requires\": [\"task-1\"]", "\"requires\": [\"task-5\"]")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].type", is("MISSING_DEPENDENCY")));
+        mockMvc.perform(post("/api/graphs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"command\": \"touch /tmp/file1\"", "\"command\": \"touch /tmp/file1\", \"requires\": [\"task-2\"]")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[0].type", is("CIRCULAR_DEPENDENCY")));
+    }
+
+    @Test
+    void testUnknownGraph() throws Exception {
+        mockMvc.perform(get("/api/graphs/unknown")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/graphs/unknown/orderedTasks")).andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/graphs/unknown/tasks/task-1/requires/task-2")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/graphs/unknown/tasks/task-1/requires/task-2")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/graphs/unknown/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"task-4\", \"command\": \"ls\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/graphs/unknown/tasks/task-1")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/graphs/unknown")).andExpect(status().isNotFound());
+    }
+
+    @Nested
+    @TestPropertySource(properties = "job-processing.graphs.max-tasks-and-edges=10")
+    class SizeLimit {
+        // The limit needs its own context, whose MockMvc shadows the one of the enclosing instance.
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void testGraphSizeLimit() throws Exception {
+            final var tasks = new StringBuilder("{\"tasks\": [");
+            for (int i = 0; i < 11; i++) {
+                tasks.append(i == 0 ? "" : ", ").append("{\"name\": \"task-").append(i).append("\", \"command\": \"ls\"}");
+            }
+            mockMvc.perform(post("/api/graphs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(tasks.append("]}").toString()))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(is("Job graph too large: more than 10 tasks and edges")));
+
+            final String id = createGraph(mockMvc);
+            mockMvc.perform(post("/api/graphs/" + id + "/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\": \"task-4\", \"command\": \"ls\", \"requires\": [\"task-1\", \"task-2\", \"task-3\"]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.edgeCount", is(4)));
+            // 8 tasks and edges, and the new task would add 3.
+            mockMvc.perform(post("/api/graphs/" + id + "/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\": \"task-5\", \"command\": \"ls\", \"requires\": [\"task-1\", \"task-4\"]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(is("Job graph too large: more than 10 tasks and edges")));
+            mockMvc.perform(get("/api/graphs/" + id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.taskCount", is(4)))
+                    .andExpect(jsonPath("$.edgeCount", is(4)));
+            mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-3/requires/task-1")).andExpect(status().isOk());
+            mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-3/requires/task-2")).andExpect(status().isOk());
+            mockMvc.perform(put("/api/graphs/" + id + "/tasks/task-4/requires/task-1"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private String createGraph() throws Exception {
+        return createGraph(mockMvc);
+    }
+
+    private String createGraph(MockMvc mockMvc) throws Exception {
+        final var response = mockMvc.perform(post("/api/graphs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.taskCount", is(3)))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asText();
+    }
+}
@@ -0,0 +1,61 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobGraphRegistryTest {
+    private final JobGraphRegistry subject = new JobGraphRegistry(new TasksSorter(), new JobGraphProperties(100, 8, Duration.ofHours(1)));
+
+    private final Job job = new Job(List.of(
+            new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+            new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)),
+            new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))));
+
+    @Test
+    void testCreate_boundedByTasksAndEdges() {
+        final String first = subject.create(job).id();
+        final String second = subject.create(job).id();
+
+        // Which one is dropped is up to the admission policy of the cache.
+        assertEquals(1, Stream.of(first, second).filter(id -> subject.get(id).isPresent()).count());
+    }
+
+    @Test
+    void testCreate_tooLarge() {
+        final var tasks = new ArrayList<Task>();
+        for (int i = 0; i < 9; i++) {
+            tasks.add(new Task("task-" + i, "echo " + i, null));
+        }
+
+        assertThatThrownBy(() -> subject.create(new Job(tasks)))
+                .isInstanceOf(JobProcessingException.class)
+                .hasMessage("Job graph too large: more than 8 tasks and edges");
+    }
+
+    @Test
+    void testPatch_rejectsGrowthBeyondTheBound() {
+        final String id = subject.create(job).id();
+
+        assertEquals(3, subject.patch(id, 1, graph -> graph.addRequirement(TASK_3_NAME, TASK_2_NAME)).orElseThrow().edgeCount());
+        assertThatThrownBy(() -> subject.patch(id, 5, graph -> {
+            graph.addTask(new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_1_NAME, TASK_2_NAME, TASK_3_NAME)));
+            graph.addTask(new Task("task-5", "echo 5", null));
+        }))
+                .isInstanceOf(JobProcessingException.class)
+                .hasMessage("Job graph too large: more than 8 tasks and edges");
+
+        assertEquals(3, subject.get(id).orElseThrow().size());
+        assertEquals(2, subject.patch(id, 0, graph -> graph.removeTask(TASK_3_NAME)).orElseThrow().taskCount());
+        assertTrue(subject.patch("unknown", 0, graph -> graph.removeTask(TASK_1_NAME)).isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JobMetricsAspectTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JobMetricsAspect aspect = new JobMetricsAspect(new JobMetrics(beanProvider(registry)));
+
+    @Test
+    void testSortMetrics() {
+        final TasksSorter tasksSorter = proxy(new TasksSorter());
+
+        tasksSorter.sortTasks(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME, TASK_2_NAME))));
+        assertThatThrownBy(() -> tasksSorter.sortTasks(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_2_NAME)),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)))))
+                .isInstanceOf(CircularDependencyException.class);
+
+        assertEquals(2, registry.get("job.sort").timer().count());
+        assertEquals(5, registry.get("job.tasks").summary().totalAmount());
+        assertEquals(5, registry.get("job.edges").summary().totalAmount());
+        assertEquals(1, registry.get("job.cycles").counter().count());
+    }
+
+    @Test
+    void testSortMetrics_graphsAndLevels() {
+        final TasksSorter tasksSorter = proxy(new TasksSorter());
+        final var graph = TaskGraph.of(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME))));
+
+        tasksSorter.sortGraph(graph);
+        tasksSorter.sortGraph(graph, OrderingPolicy.NAME, null, null, List.of(TASK_2_NAME));
+        tasksSorter.sortLevels(graph);
+        new ExecutionPlanner(tasksSorter).plan(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null)));
+
+        assertEquals(4, registry.get("job.sort").timer().count());
+        assertEquals(7, registry.get("job.tasks").summary().totalAmount());
+        assertEquals(3, registry.get("job.edges").summary().totalAmount());
+    }
+
+    @Test
+    void testSerializationMetrics() {
+        final JobProcessorService jobProcessorService = proxy(new JobProcessorService(new TasksSorter()));
+
+        jobProcessorService.generateBashScript(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null)));
+        jobProcessorService.renderBashScript(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null)));
+
+        assertEquals(2, registry.get("job.serialization").tag("format", "script").timer().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        final var factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    private static ObjectProvider<MeterRegistry> beanProvider(MeterRegistry registry) {
+        final var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        return beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+}
@@ -1,32 +1,58 @@
 package com.brasoveandan.jobprocessing;
 
 import com.brasoveandan.jobprocessing.controller.JobProcessingController;
+import com.brasoveandan.jobprocessing.core.BinaryJobFormat;
+import com.brasoveandan.jobprocessing.core.ExecutionPlan;
+import com.brasoveandan.jobprocessing.core.ExecutionPlanner;
+import com.brasoveandan.jobprocessing.core.IncrementalPlan;
+import com.brasoveandan.jobprocessing.core.IncrementalPlanner;
 import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.JobMetrics;
 import com.brasoveandan.jobprocessing.core.JobProcessingException;
 import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.JobResultCache;
+import com.brasoveandan.jobprocessing.core.JobStreamProcessor;
+import com.brasoveandan.jobprocessing.core.OrderingPolicy;
+import com.brasoveandan.jobprocessing.core.ResponseCompressor;
 import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
 import java.util.List;
 
 import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(JobProcessingController.class)
+@Import({JobResultCache.class, JobMetrics.class, TasksSorter.class, JobStreamProcessor.class, ResponseCompressor.class})
 class JobProcessingControllerTest {
     @Autowired
     private MockMvc mockMvc;
     @MockBean
     private JobProcessorService jobProcessorService;
+    @MockBean
+    private ExecutionPlanner executionPlanner;
 
     private final String json = """
             {
@@ -74,7 +100,7 @@ class JobProcessingControllerTest {
                 rm /tmp/file1
                 """;
         when(jobProcessorService.orderTasks(job)).thenReturn(orderedTasks);
-        when(jobProcessorService.generateBashScript(orderedTasks)).thenReturn(expectedScript);
+        when(jobProcessorService.renderBashScript(orderedTasks)).thenReturn(expectedScript.getBytes(StandardCharsets.UTF_8));
 
         mockMvc.perform(post("/api/orderedTasks")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -84,6 +110,255 @@ class JobProcessingControllerTest {
                 .andExpect(content().string(is(expectedScript)));
     }
 
+    @Test
+    void testProcessJob_TargetsBinaryOrder() throws Exception {
+        final var response = mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .content(json.replace("\"tasks\"", "\"targets\": [\"task-2\"], \"tasks\"")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(new int[]{0, 2, 1}, BinaryJobFormat.readOrder(new ByteArrayInputStream(response)));
+    }
+
+    @Test
+    void testProcessJob_UnknownTarget() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .content(json.replace("\"tasks\"", "\"targets\": [\"task-5\"], \"tasks\"")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].type", is("UNKNOWN_TARGET")));
+    }
+
+    @Test
+    void testProcessJob_IncrementalWithoutMemoization() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks?incremental=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testProcessJob_IncrementalAndParallel() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks?incremental=true&parallel=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(is("incremental=true cannot be combined with parallel=true")));
+    }
+
+    @Test
+    void testProcessJob_ParallelInvalidMaxJobs() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks")
+                        .param("parallel", "true")
+                        .param("maxJobs", "0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(is("maxJobs must be at least 1")));
+    }
+
+    @Test
+    void testProcessJob_ParallelPlan() throws Exception {
+        final var plan = new ExecutionPlan(List.of(
+                List.of(orderedTasks.get(0)), List.of(orderedTasks.get(1)), List.of(orderedTasks.get(2)), List.of(orderedTasks.get(3))),
+                List.of(TASK_1_NAME, TASK_3_NAME, TASK_2_NAME, TASK_4_NAME), 1);
+        when(executionPlanner.plan(job.tasks())).thenReturn(plan);
+
+        mockMvc.perform(post("/api/orderedTasks")
+                        .param("parallel", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.levels[1][0].name", is(TASK_3_NAME)))
+                .andExpect(jsonPath("$.criticalPath[3]", is(TASK_4_NAME)))
+                .andExpect(jsonPath("$.maxParallelism", is(1)));
+    }
+
+    @Test
+    void testProcessJob_ParallelBashScript() throws Exception {
+        final var plan = new ExecutionPlan(List.of(orderedTasks), List.of(TASK_1_NAME), 4);
+        when(executionPlanner.plan(job.tasks())).thenReturn(plan);
+        when(jobProcessorService.generateParallelBashScript(plan, 2)).thenReturn("script");
+
+        mockMvc.perform(post("/api/orderedTasks")
+                        .param("parallel", "true")
+                        .param("maxJobs", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(JobProcessorService.BASH_SCRIPT_TYPE))
+                .andExpect(content().string(is("script")));
+    }
+
+    @Test
+    void testProcessJob_BinaryOrder() throws Exception {
+        final var response = mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryJobFormat.MEDIA_TYPE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(new int[]{0, 2, 1, 3}, BinaryJobFormat.readOrder(new ByteArrayInputStream(response)));
+    }
+
+    @Test
+    void testProcessBinaryJob() throws Exception {
+        final var request = new ByteArrayOutputStream();
+        BinaryJobFormat.writeJob(job.tasks(), request);
+
+        final var response = mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .accept(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .content(request.toByteArray()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(new int[]{0, 2, 1, 3}, BinaryJobFormat.readOrder(new ByteArrayInputStream(response)));
+
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(request.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].name", is(TASK_3_NAME)))
+                .andExpect(jsonPath("$[3].name", is(TASK_4_NAME)));
+
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(request.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(endsWith("""
+                        touch /tmp/file1
+                        echo 'Hello World!' > /tmp/file1
+                        cat /tmp/file1
+                        rm /tmp/file1
+                        """)));
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"job-processing.compression.enabled=true", "job-processing.compression.min-size=1B"})
+    class Compression {
+        @Autowired
+        private MockMvc mockMvc;
+        @Autowired
+        private JobProcessorService jobProcessorService;
+
+        @Test
+        void testProcessJob_GzippedBashScript() throws Exception {
+            final var expectedScript = "touch /tmp/file1\n";
+            when(jobProcessorService.orderTasks(job)).thenReturn(orderedTasks);
+            when(jobProcessorService.renderBashScript(orderedTasks)).thenReturn(expectedScript.getBytes(StandardCharsets.UTF_8));
+
+            final var response = mockMvc.perform(post("/api/orderedTasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.TEXT_PLAIN)
+                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                            .content(json))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                    .andReturn().getResponse().getContentAsByteArray();
+            try (var in = new GZIPInputStream(new ByteArrayInputStream(response))) {
+                assertEquals(expectedScript, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            mockMvc.perform(post("/api/orderedTasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.TEXT_PLAIN)
+                            .content(json))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(content().string(is(expectedScript)));
+        }
+    }
+
+    @Nested
+    class Incremental {
+        @Autowired
+        private MockMvc mockMvc;
+        @Autowired
+        private JobProcessorService jobProcessorService;
+        @MockBean
+        private IncrementalPlanner incrementalPlanner;
+
+        @Test
+        void testProcessJob_IncrementalPlan() throws Exception {
+            final var changedTasks = orderedTasks.subList(2, 4);
+            when(incrementalPlanner.plan(job.tasks(), OrderingPolicy.INPUT))
+                    .thenReturn(new IncrementalPlan(changedTasks, List.of(TASK_1_NAME, TASK_3_NAME)));
+            when(jobProcessorService.renderBashScript(changedTasks)).thenReturn("cat /tmp/file1\nrm /tmp/file1\n".getBytes(StandardCharsets.UTF_8));
+
+            mockMvc.perform(post("/api/orderedTasks?incremental=true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.orderedTasks[0].name", is(TASK_2_NAME)))
+                    .andExpect(jsonPath("$.orderedTasks[1].name", is(TASK_4_NAME)))
+                    .andExpect(jsonPath("$.upToDateTasks[1]", is(TASK_3_NAME)));
+
+            mockMvc.perform(post("/api/orderedTasks?incremental=true")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.TEXT_PLAIN)
+                            .content(json))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(is("cat /tmp/file1\nrm /tmp/file1\n")));
+        }
+    }
+
+    @Test
+    void testProcessJob_InvalidJob() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .content("""
+                                {"tasks": [{"name": "task-1", "command": "touch /tmp/file1", "requires": ["task-5"]}]}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Task task-1 requires unknown task task-5")))
+                .andExpect(jsonPath("$.errors[0].type", is("MISSING_DEPENDENCY")));
+    }
+
+    @Test
+    void testProcessBinaryJob_Unparsable() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json))
+                .andExpect(status().isBadRequest());
+
+        final var request = new ByteArrayOutputStream();
+        BinaryJobFormat.writeJob(job.tasks(), request);
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(Arrays.copyOf(request.toByteArray(), request.size() - 4)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(is("Unparsable binary request")));
+    }
+
+    @Test
+    void testProcessBinaryJob_DuplicateTask() throws Exception {
+        final var request = new ByteArrayOutputStream();
+        BinaryJobFormat.writeJob(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null), new Task(TASK_1_NAME, TASK_2_COMMAND, null)), request);
+
+        mockMvc.perform(post("/api/orderedTasks")
+                        .contentType(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .accept(BinaryJobFormat.MEDIA_TYPE_VALUE)
+                        .content(request.toByteArray()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].type", is("DUPLICATE_TASK")));
+    }
+
     @Test
     void testProcessJob_Exception() throws Exception {
         final var json = """
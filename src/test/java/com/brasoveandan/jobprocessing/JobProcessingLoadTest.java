@@ -0,0 +1,234 @@
+package com.brasoveandan.jobprocessing;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop load test of {@code POST /api/orderedTasks} on the embedded Tomcat, reporting latency percentiles
+ * and throughput for every combination of server threads, {@code Accept} header and concurrency. It is skipped
+ * unless run with {@code -DloadTest=true}, for instance
+ * {@code ./mvnw test -Dtest=JobProcessingLoadTest -DloadTest=true -DloadTest.concurrency=1,64}.
+ * <p>
+ * Settings, as system properties:
+ * <ul>
+ *     <li>{@code loadTest.threads}: {@code platform} and/or {@code virtual} Tomcat request threads, one
+ *     application started for each; defaults to both.</li>
+ *     <li>{@code loadTest.accept}: the {@code Accept} headers; defaults to {@code application/json,text/plain}.</li>
+ *     <li>{@code loadTest.concurrency}: the numbers of clients sending requests back to back; defaults to {@code 1,8,32}.</li>
+ *     <li>{@code loadTest.mix}: the job sizes and their weights; defaults to {@code 10:70,1000:25,10000:5}.</li>
+ *     <li>{@code loadTest.warmup} and {@code loadTest.duration}: per combination; default to {@code 5s} and {@code 10s}.</li>
+ *     <li>{@code loadTest.slo.p99}: when set, the test fails if the p99 latency of any combination exceeds it.</li>
+ * </ul>
+ * The result cache is disabled so that every request is sorted; application properties such as
+ * {@code -Djob-processing.cache.enabled=true} or {@code -Dserver.tomcat.threads.max=50} override that.
+ * Latencies are measured by the clients from sending a request to reading the whole response.
+ */
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class JobProcessingLoadTest {
+    private static final String ROW = "%-8s %-16s %11s %7s %9s %6s %10s %9s %9s %9s %9s %4s%n";
+
+    private final List<String> threads = list("loadTest.threads", "platform,virtual");
+    private final List<String> accepts = list("loadTest.accept", "application/json,text/plain");
+    private final List<Integer> concurrencies = list("loadTest.concurrency", "1,8,32").stream().map(Integer::valueOf).toList();
+    private final Mix mix = Mix.parse(System.getProperty("loadTest.mix", "10:70,1000:25,10000:5"));
+    private final Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadTest.warmup", "5s"));
+    private final Duration duration = DurationStyle.detectAndParse(System.getProperty("loadTest.duration", "10s"));
+    private final Duration sloP99 = Optional.ofNullable(System.getProperty("loadTest.slo.p99"))
+            .map(DurationStyle::detectAndParse).orElse(null);
+
+    @Test
+    void testOrderedTasks_latencyAndThroughput() throws Exception {
+        final List<String> missedSlo = new ArrayList<>();
+        final var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.printf(ROW, "threads", "accept", "concurrency", "size", "requests", "errors", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms", "slo");
+        for (String thread : threads) {
+            try (ConfigurableApplicationContext context = start(thread)) {
+                final URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/orderedTasks");
+                for (String accept : accepts) {
+                    for (int concurrency : concurrencies) {
+                        run(client, uri, accept, concurrency, warmup);
+                        final Result result = run(client, uri, accept, concurrency, duration);
+                        for (Map.Entry<String, Histogram> entry : result.latencies().entrySet()) {
+                            final Histogram latencies = entry.getValue();
+                            final boolean met = sloP99 == null || latencies.getValueAtPercentile(99) <= sloP99.toNanos() / 1_000;
+                            final boolean total = entry.getKey().equals("all");
+                            if (total && !met) {
+                                missedSlo.add("%s %s x%d: p99 %.1f ms".formatted(thread, accept, concurrency, millis(latencies, 99)));
+                            }
+                            System.out.printf(ROW, thread, accept, concurrency, entry.getKey(), latencies.getTotalCount(),
+                                    total ? result.errors() : "", "%.0f".formatted(latencies.getTotalCount() / seconds(duration)),
+                                    "%.2f".formatted(millis(latencies, 50)), "%.2f".formatted(millis(latencies, 99)),
+                                    "%.2f".formatted(millis(latencies, 99.9)), "%.2f".formatted(latencies.getMaxValue() / 1_000.0),
+                                    sloP99 == null || !total ? "" : met ? "ok" : "MISS");
+                        }
+                        assertThat(result.errors()).as("failed requests").isZero();
+                    }
+                }
+            }
+        }
+        assertThat(missedSlo).as("p99 above " + sloP99).isEmpty();
+    }
+
+    private static ConfigurableApplicationContext start(String threads) {
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("loadTest.threads must be platform or virtual: " + threads);
+        }
+        // Defaults, which system properties override.
+        return new SpringApplicationBuilder(JobProcessingApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "job-processing.cache.enabled=false")
+                .run();
+    }
+
+    /**
+     * Runs {@code concurrency} clients, each sending a request of a size drawn from the mix as soon as it has
+     * read the previous response, until the duration elapses.
+     */
+    private Result run(HttpClient client, URI uri, String accept, int concurrency, Duration duration) throws Exception {
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final List<Future<Result>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                final var random = new Random(c);
+                clients.add(executor.submit(() -> {
+                    final var result = new Result(mix);
+                    while (System.nanoTime() < deadline) {
+                        final int job = mix.next(random);
+                        final var request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .header("Accept", accept)
+                                .POST(HttpRequest.BodyPublishers.ofByteArray(mix.bodies()[job]))
+                                .build();
+                        final long start = System.nanoTime();
+                        final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        result.record(job, System.nanoTime() - start, response.statusCode() == 200);
+                    }
+                    return result;
+                }));
+            }
+        }
+        final var total = new Result(mix);
+        for (Future<Result> result : clients) {
+            total.add(result.get());
+        }
+        return total;
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+
+    private static List<String> list(String property, String defaultValue) {
+        return Arrays.stream(System.getProperty(property, defaultValue).split(",")).map(String::trim).toList();
+    }
+
+    /**
+     * The jobs to send, with the cumulative weights from which each request picks one.
+     */
+    private record Mix(int[] sizes, int[] cumulativeWeights, byte[][] bodies) {
+        static Mix parse(String mix) {
+            final String[] entries = mix.split(",");
+            final int[] sizes = new int[entries.length];
+            final int[] cumulativeWeights = new int[entries.length];
+            final byte[][] bodies = new byte[entries.length][];
+            for (int i = 0; i < entries.length; i++) {
+                final String[] sizeAndWeight = entries[i].trim().split(":");
+                sizes[i] = Integer.parseInt(sizeAndWeight[0]);
+                cumulativeWeights[i] = (i == 0 ? 0 : cumulativeWeights[i - 1])
+                        + (sizeAndWeight.length > 1 ? Integer.parseInt(sizeAndWeight[1]) : 1);
+                bodies[i] = json(sizes[i]);
+            }
+            return new Mix(sizes, cumulativeWeights, bodies);
+        }
+
+        int next(Random random) {
+            final int weight = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int job = 0;
+            while (cumulativeWeights[job] <= weight) {
+                job++;
+            }
+            return job;
+        }
+
+        /**
+         * A job whose task {@code i} requires up to three random earlier tasks.
+         */
+        private static byte[] json(int size) {
+            final var random = new Random(size);
+            final var json = new StringBuilder("{\"tasks\":[");
+            for (int i = 0; i < size; i++) {
+                json.append(i == 0 ? "" : ",").append("{\"name\":\"task-").append(i)
+                        .append("\",\"command\":\"echo ").append(i).append("\",\"requires\":[");
+                for (int r = Math.min(i, random.nextInt(4)); r > 0; r--) {
+                    json.append("\"task-").append(random.nextInt(i)).append(r == 1 ? "\"" : "\",");
+                }
+                json.append("]}");
+            }
+            return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Latencies in microseconds, over all requests and by job size.
+     */
+    private static final class Result {
+        private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        private final Histogram[] bySize;
+        private long errors;
+
+        Result(Mix mix) {
+            latencies.put("all", new Histogram(3));
+            bySize = new Histogram[mix.sizes().length];
+            for (int i = 0; i < bySize.length; i++) {
+                bySize[i] = latencies.computeIfAbsent(String.valueOf(mix.sizes()[i]), size -> new Histogram(3));
+            }
+        }
+
+        void record(int job, long nanos, boolean succeeded) {
+            final long micros = Math.max(1, nanos / 1_000);
+            latencies.get("all").recordValue(micros);
+            bySize[job].recordValue(micros);
+            if (!succeeded) {
+                errors++;
+            }
+        }
+
+        void add(Result other) {
+            other.latencies.forEach((key, histogram) -> latencies.get(key).add(histogram));
+            errors += other.errors;
+        }
+
+        Map<String, Histogram> latencies() {
+            return latencies;
+        }
+
+        long errors() {
+            return errors;
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package com.brasoveandan.jobprocessing;
 
+import com.brasoveandan.jobprocessing.core.ExecutionPlan;
 import com.brasoveandan.jobprocessing.core.Job;
 import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.OrderingPolicy;
 import com.brasoveandan.jobprocessing.core.Task;
 import com.brasoveandan.jobprocessing.core.TasksSorter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -36,7 +45,7 @@ class JobProcessorServiceTest {
         final var job = new Job(unsortedTasks);
 
         final var sortedTasks = Arrays.asList(task1, task2);
-        when(tasksSorter.sortTasks(unsortedTasks)).thenReturn(sortedTasks);
+        when(tasksSorter.sortTasks(unsortedTasks, OrderingPolicy.INPUT, null)).thenReturn(sortedTasks);
 
         final var result = subject.orderTasks(job);
         assertEquals(sortedTasks, result);
@@ -45,11 +54,59 @@ class JobProcessorServiceTest {
     @Test
     void testGenerateBashScript() {
         final var sortedTasks = Arrays.asList(task1, task2);
-        final var expectedScript = """
+        final var expectedScript = JobProcessorService.BASH_SCRIPT_HEADER + """
                 touch /tmp/file1
                 cat /tmp/file1
                 """;
         final var result = subject.generateBashScript(sortedTasks);
         assertEquals(expectedScript, result);
     }
+
+    @Test
+    void testRenderBashScript_encodesUtf8() {
+        final var commands = Arrays.asList("echo héllo €", "echo \uD83D\uDE00", "echo \uD800 unpaired", null);
+        final var tasks = commands.stream().map(command -> new Task(TASK_1_NAME, command, null)).toList();
+
+        final var result = subject.renderBashScript(tasks);
+
+        // Like String.getBytes, an unpaired surrogate is encoded as '?'.
+        final var expectedScript = JobProcessorService.BASH_SCRIPT_HEADER + "echo héllo €\necho \uD83D\uDE00\necho \uD800 unpaired\nnull\n";
+        assertArrayEquals(expectedScript.getBytes(StandardCharsets.UTF_8), result);
+    }
+
+    @Test
+    void testGenerateParallelBashScript() {
+        final var task3 = new Task(TASK_3_NAME, TASK_3_COMMAND, null);
+        final var plan = new ExecutionPlan(List.of(List.of(task1, task3), List.of(task2)), List.of(TASK_1_NAME, TASK_2_NAME), 2);
+
+        final var result = subject.generateParallelBashScript(plan, 4);
+
+        assertTrue(result.startsWith(JobProcessorService.BASH_SCRIPT_HEADER + "max_jobs=4\n"));
+        assertTrue(result.endsWith("""
+                # Level 1
+                throttle; { touch /tmp/file1
+                } &
+                throttle; { echo 'Hello World!' > /tmp/file1
+                } &
+                wait_level
+                # Level 2
+                throttle; { cat /tmp/file1
+                } &
+                wait_level
+                """));
+    }
+
+    @Test
+    void testGenerateParallelBashScript_rejectsNonPositiveMaxJobs(@TempDir Path directory) throws Exception {
+        final var plan = new ExecutionPlan(List.of(List.of(task1)), List.of(TASK_1_NAME), 1);
+        final var script = Files.writeString(directory.resolve("job.sh"), subject.generateParallelBashScript(plan, 1));
+
+        for (String maxJobs : List.of("0", "-1", "two")) {
+            final var process = new ProcessBuilder("bash", script.toString(), "-j", maxJobs).redirectErrorStream(true).start();
+
+            assertTrue(process.waitFor(10, TimeUnit.SECONDS), "Script with -j " + maxJobs + " did not end");
+            assertEquals(2, process.exitValue());
+            assertTrue(new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).contains("usage:"));
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobResultCacheTest {
+    private final TasksSorter tasksSorter = new TasksSorter();
+    private final AtomicInteger sortCount = new AtomicInteger();
+    private final Function<Job, List<Task>> sorter = job -> {
+        sortCount.incrementAndGet();
+        return tasksSorter.sortTasks(job.tasks(), job.ordering());
+    };
+
+    private final Job job = new Job(List.of(
+            new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+            new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME, TASK_3_NAME)),
+            new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))
+    ), OrderingPolicy.NAME);
+    private final Job reorderedJob = new Job(List.of(
+            new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME)),
+            new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME, TASK_1_NAME)),
+            new Task(TASK_1_NAME, TASK_1_COMMAND, null)
+    ), OrderingPolicy.NAME);
+
+    @Test
+    void testHash_ignoresTaskAndRequiresOrder() {
+        assertEquals(JobHasher.hash(job), JobHasher.hash(reorderedJob));
+    }
+
+    @Test
+    void testHash_inputOrderingDependsOnTaskOrder() {
+        final var inputOrderedJob = new Job(job.tasks());
+        final var reorderedInputJob = new Job(reorderedJob.tasks());
+
+        assertNotEquals(JobHasher.hash(inputOrderedJob), JobHasher.hash(reorderedInputJob));
+        assertNotEquals(JobHasher.hash(job), JobHasher.hash(inputOrderedJob));
+    }
+
+    @Test
+    void testHash_dependsOnPriority() {
+        final var prioritizedJob = new Job(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null, 1, null)));
+        final var otherJob = new Job(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null, 2, null)));
+
+        assertNotEquals(JobHasher.hash(prioritizedJob), JobHasher.hash(otherJob));
+    }
+
+    @Test
+    void testHash_dependsOnTargets() {
+        final var targetedJob = new Job(job.tasks(), OrderingPolicy.NAME, List.of(TASK_3_NAME, TASK_2_NAME));
+        final var reorderedTargetsJob = new Job(reorderedJob.tasks(), OrderingPolicy.NAME, List.of(TASK_2_NAME, TASK_3_NAME));
+
+        assertEquals(JobHasher.hash(targetedJob), JobHasher.hash(reorderedTargetsJob));
+        assertNotEquals(JobHasher.hash(job), JobHasher.hash(targetedJob));
+        assertEquals(JobHasher.hash(job), JobHasher.hash(new Job(job.tasks(), OrderingPolicy.NAME, List.of())));
+    }
+
+    @Test
+    void testHash_dependsOnContent() {
+        final var changedJob = new Job(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))
+        ));
+        assertNotEquals(JobHasher.hash(job), JobHasher.hash(changedJob));
+    }
+
+    @Test
+    void testGet_hitSkipsSortingAndRendering() {
+        final var subject = cache(true, 1_000_000);
+        final var renderCount = new AtomicInteger();
+
+        final var first = subject.get(job, sorter);
+        first.bashScript(tasks -> new byte[]{(byte) renderCount.incrementAndGet()});
+        final var second = subject.get(reorderedJob, sorter);
+
+        assertSame(first, second);
+        assertArrayEquals(new byte[]{1}, second.bashScript(tasks -> new byte[]{(byte) renderCount.incrementAndGet()}));
+        assertEquals(1, sortCount.get());
+        assertEquals(1, subject.stats().hitCount());
+        assertEquals(1, subject.stats().missCount());
+    }
+
+    @Test
+    void testGet_evictsByRenderedSize() {
+        final var subject = cache(true, 1_000);
+        final var otherJob = new Job(List.of(new Task(TASK_4_NAME, TASK_4_COMMAND, null)));
+
+        final var result = subject.get(job, sorter);
+        subject.get(otherJob, sorter);
+        assertEquals(0, subject.stats().evictionCount());
+
+        result.bashScript(tasks -> new byte[1_000]);
+
+        assertEquals(1, subject.stats().evictionCount());
+    }
+
+    @Test
+    void testGet_disabled() {
+        final var subject = cache(false, 1_000_000);
+
+        subject.get(job, sorter);
+        subject.get(job, sorter);
+
+        assertEquals(2, sortCount.get());
+    }
+
+    @Test
+    void testGet_storedOrderSurvivesRestart(@TempDir Path directory) {
+        final var properties = new JobStoreProperties(true, directory.toString(), DataSize.ofMegabytes(1), 8, Duration.ofDays(7));
+        final var store = new JobStore(properties);
+        final var expected = cache(false, 1_000_000, store).get(job, sorter).orderedTasks();
+        store.close();
+
+        final var restarted = cache(true, 1_000_000, new JobStore(properties));
+        final var result = restarted.get(reorderedJob, sorter);
+
+        assertEquals(expected, result.orderedTasks());
+        assertEquals(1, sortCount.get());
+    }
+
+    private static JobResultCache cache(boolean enabled, long maxSize, JobStore jobStore) {
+        final var beanFactory = new StaticListableBeanFactory();
+        if (jobStore != null) {
+            beanFactory.addBean("jobStore", jobStore);
+        }
+        return new JobResultCache(new JobResultCacheProperties(enabled, DataSize.ofBytes(maxSize), Duration.ofMinutes(1)),
+                beanFactory.getBeanProvider(MeterRegistry.class), beanFactory.getBeanProvider(JobStore.class));
+    }
+
+    private static JobResultCache cache(boolean enabled, long maxSize) {
+        return cache(enabled, maxSize, null);
+    }
+}
@@ -0,0 +1,203 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.JobHasher;
+import com.brasoveandan.jobprocessing.core.JobStore;
+import com.brasoveandan.jobprocessing.core.JobStoreProperties;
+import com.brasoveandan.jobprocessing.core.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JobStoreTest {
+    @TempDir
+    private Path directory;
+
+    private final List<Task> orderedTasks = List.of(
+            new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+            new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME)),
+            new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME)),
+            new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_3_NAME, TASK_2_NAME))
+    );
+
+    @Test
+    void testFind_returnsAppendedOrder() {
+        final var store = store(DataSize.ofMegabytes(1), 8, Clock.systemUTC());
+
+        store.append(hash(1), orderedTasks);
+
+        assertEquals(Optional.of(orderedTasks), store.find(hash(1)));
+        assertEquals(Optional.empty(), store.find(hash(2)));
+    }
+
+    @Test
+    void testFind_afterRestartAcrossSegments() {
+        final var store = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+        for (int i = 0; i < 20; i++) {
+            store.append(hash(i), job(i));
+        }
+        store.close();
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        final var reopened = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Optional.of(job(i)), reopened.find(hash(i)));
+        }
+    }
+
+    @Test
+    void testAppend_supersedesPreviousRecord() {
+        final var store = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+        store.append(hash(1), job(1));
+        for (int i = 2; i < 20; i++) {
+            store.append(hash(i), job(i));
+        }
+
+        store.append(hash(1), orderedTasks);
+
+        assertEquals(Optional.of(orderedTasks), store.find(hash(1)));
+    }
+
+    @Test
+    void testOpen_ignoresTornRecord() throws IOException {
+        final var store = store(DataSize.ofMegabytes(1), 8, Clock.systemUTC());
+        store.append(hash(1), orderedTasks);
+        store.append(hash(2), job(2));
+        store.close();
+        // Overwrite the end of the second record, as a crash while appending could leave it.
+        try (FileChannel channel = FileChannel.open(segments().getFirst(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer lengths = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(lengths, 8);
+            final int second = 8 + lengths.flip().getInt();
+            channel.read(lengths.clear(), second);
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), second + lengths.flip().getInt() - 4);
+        }
+
+        final var reopened = store(DataSize.ofMegabytes(1), 8, Clock.systemUTC());
+
+        assertEquals(Optional.of(orderedTasks), reopened.find(hash(1)));
+        assertEquals(Optional.empty(), reopened.find(hash(2)));
+        reopened.append(hash(3), job(3));
+        assertEquals(Optional.of(job(3)), reopened.find(hash(3)));
+    }
+
+    @Test
+    void testCompaction_keepsNewestRetainedRecords() {
+        final var now = Instant.parse("2026-01-01T00:00:00Z");
+        final var store = store(DataSize.ofKilobytes(1), 2, Clock.fixed(now, ZoneOffset.UTC));
+        store.append(hash(0), orderedTasks);
+        store.close();
+
+        final var laterStore = store(DataSize.ofKilobytes(1), 2, Clock.fixed(now.plus(Duration.ofDays(6)), ZoneOffset.UTC));
+        for (int round = 0; round < 3; round++) {
+            for (int i = 1; i < 20; i++) {
+                laterStore.append(hash(i), job(i + round));
+            }
+        }
+        laterStore.close();
+
+        assertThat(segments()).hasSizeLessThanOrEqualTo(3);
+        for (int i = 1; i < 20; i++) {
+            assertEquals(Optional.of(job(i + 2)), laterStore.find(hash(i)));
+        }
+        assertEquals(Optional.of(orderedTasks), laterStore.find(hash(0)));
+
+        final var expiredStore = store(DataSize.ofKilobytes(1), 2, Clock.fixed(now.plus(Duration.ofDays(8)), ZoneOffset.UTC));
+        assertEquals(Optional.empty(), expiredStore.find(hash(0)));
+        assertEquals(Optional.of(job(21)), expiredStore.find(hash(19)));
+    }
+
+    @Test
+    void testOpen_afterCrashBeforeCompactedSegmentsAreDeleted() throws IOException {
+        final var store = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 20; i++) {
+                store.append(hash(i), job(i + round));
+            }
+        }
+        store.close();
+        assertThat(segments()).hasSizeGreaterThan(3);
+        final Path backup = Files.createDirectories(directory.resolveSibling(directory.getFileName() + "-backup"));
+        for (Path file : files()) {
+            Files.copy(file, backup.resolve(file.getFileName()));
+        }
+
+        final var compactingStore = store(DataSize.ofKilobytes(1), 2, Clock.systemUTC());
+        compactingStore.close();
+        assertThat(segments()).hasSizeLessThanOrEqualTo(3);
+        // As if the process died after writing the compacted segment, before deleting those it replaces.
+        try (Stream<Path> files = Files.list(backup)) {
+            for (Path file : files.toList()) {
+                if (!Files.exists(directory.resolve(file.getFileName()))) {
+                    Files.copy(file, directory.resolve(file.getFileName()));
+                }
+            }
+        }
+
+        final var reopened = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Optional.of(job(i + 2)), reopened.find(hash(i)));
+        }
+    }
+
+    @Test
+    void testOpen_removesLeftoversOfInterruptedWrites() throws IOException {
+        final var store = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+        store.append(hash(1), orderedTasks);
+        store.close();
+        Files.writeString(directory.resolve("00000000000000000099.idx"), "orphan");
+        Files.writeString(directory.resolve("00000000000000000099.log.tmp"), "torn");
+
+        final var reopened = store(DataSize.ofKilobytes(1), 100, Clock.systemUTC());
+
+        assertEquals(Optional.of(orderedTasks), reopened.find(hash(1)));
+        assertThat(files()).noneMatch(path -> path.getFileName().toString().startsWith("00000000000000000099"));
+    }
+
+    private JobStore store(DataSize segmentSize, int maxSegments, Clock clock) {
+        return new JobStore(new JobStoreProperties(true, directory.toString(), segmentSize, maxSegments,
+                Duration.ofDays(7)), clock);
+    }
+
+    private List<Path> segments() {
+        return files().stream().filter(path -> path.toString().endsWith(".log")).toList();
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String hash(int i) {
+        return JobHasher.hash(new Job(List.of(new Task("job-" + i, null, null))));
+    }
+
+    private static List<Task> job(int i) {
+        return List.of(
+                new Task("task-" + i, "echo " + i, null),
+                new Task("task-" + (i + 1), "echo " + (i + 1), List.of("task-" + i)));
+    }
+}
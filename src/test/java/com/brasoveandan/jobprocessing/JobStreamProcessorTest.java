@@ -0,0 +1,162 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.JobProcessingException;
+import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.JobStreamProcessor;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.OrderingPolicy;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import com.brasoveandan.jobprocessing.core.UnparsableJobException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JobStreamProcessorTest {
+    private final JobStreamProcessor subject = new JobStreamProcessor(new ObjectMapper());
+    private final TasksSorter tasksSorter = new TasksSorter();
+
+    private final String json = """
+            {
+              "id": {"ignored": [1, 2]},
+              "tasks": [
+                {"name": "task-2", "requires": ["task-3"], "command": "cat /tmp/file1"},
+                {"name": "task-3", "command": "echo 'Hello World!' > /tmp/file1", "requires": ["task-1"]},
+                {"name": "task-1", "command": "touch /tmp/file1", "requires": null},
+                {"name": "task-4", "command": "rm /tmp/file1", "requires": ["task-2", "task-3"], "timeout": 10}
+              ]
+            }""";
+
+    @Test
+    void testReadGraph() throws IOException {
+        final var graph = read(json);
+
+        assertEquals(4, graph.size());
+        assertEquals(4, graph.edgeCount());
+        assertEquals(TASK_2_NAME, graph.name(0));
+        assertEquals(TASK_3_COMMAND, graph.command(1));
+    }
+
+    @Test
+    void testReadJob() throws IOException {
+        final var job = subject.readJob(new ByteArrayInputStream("""
+                {
+                  "tasks": [
+                    {"name": "task-1", "command": "a", "priority": null},
+                    {"name": "task-2", "command": "b", "priority": 3, "estimatedDuration": 20}
+                  ],
+                  "ordering": "PRIORITY",
+                  "targets": ["task-2"]
+                }""".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, job.graph().size());
+        assertEquals(OrderingPolicy.PRIORITY, job.ordering());
+        assertEquals(List.of(TASK_2_NAME), job.targets());
+        assertArrayEquals(new int[]{0, 3}, job.priorities());
+        assertArrayEquals(new long[]{0, 20}, job.durations());
+    }
+
+    @Test
+    void testReadJob_defaults() throws IOException {
+        final var job = subject.readJob(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(OrderingPolicy.INPUT, job.ordering());
+        assertNull(job.targets());
+        assertNull(job.priorities());
+        assertNull(job.durations());
+    }
+
+    @Test
+    void testReadJob_unknownOrdering() {
+        assertThatThrownBy(() -> subject.readJob(new ByteArrayInputStream("""
+                {"tasks": [], "ordering": "FASTEST"}""".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(UnparsableJobException.class)
+                .hasMessage("Unparsable JSON request: unknown ordering FASTEST");
+    }
+
+    @Test
+    void testWriteOrderedTasks() throws IOException {
+        final var graph = read(json);
+        final var out = new ByteArrayOutputStream();
+
+        subject.writeOrderedTasks(graph, tasksSorter.sortGraph(graph), out);
+
+        assertEquals("[{\"name\":\"task-1\",\"command\":\"touch /tmp/file1\"},"
+                        + "{\"name\":\"task-3\",\"command\":\"echo 'Hello World!' > /tmp/file1\"},"
+                        + "{\"name\":\"task-2\",\"command\":\"cat /tmp/file1\"},"
+                        + "{\"name\":\"task-4\",\"command\":\"rm /tmp/file1\"}]",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteBashScript() throws IOException {
+        final var graph = read(json);
+        final var out = new ByteArrayOutputStream();
+
+        subject.writeBashScript(graph, tasksSorter.sortGraph(graph), out);
+
+        assertEquals(JobProcessorService.BASH_SCRIPT_HEADER + """
+                touch /tmp/file1
+                echo 'Hello World!' > /tmp/file1
+                cat /tmp/file1
+                rm /tmp/file1
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteBashScript_sameBytesAsRenderer() throws IOException {
+        // Commands around and above the size of a chunk, with multi-byte characters.
+        final var tasks = new ArrayList<Task>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(new Task("task-" + i, "echo " + "é€".repeat(i * 1_000), null));
+        }
+        final var graph = TaskGraph.of(tasks);
+        final var order = tasksSorter.sortGraph(graph);
+        final var out = new ByteArrayOutputStream();
+
+        subject.writeBashScript(graph, order, out);
+
+        final var expected = new JobProcessorService(tasksSorter).renderBashScript(tasks);
+        assertArrayEquals(expected, out.toByteArray());
+        assertEquals(expected.length, subject.bashScriptLength(graph, order));
+    }
+
+    @Test
+    void testReadGraph_duplicateTask() {
+        assertThatThrownBy(() -> read("""
+                {"tasks": [{"name": "task-1", "command": "a"}, {"name": "task-1", "command": "b"}]}"""))
+                .isInstanceOf(JobProcessingException.class)
+                .hasMessage("Duplicate task name: task-1");
+    }
+
+    @Test
+    void testReadGraph_unknownRequirement() {
+        assertThatThrownBy(() -> read("""
+                {"tasks": [{"name": "task-1", "command": "a", "requires": ["task-0"]}]}"""))
+                .isInstanceOf(JobValidationException.class)
+                .hasMessage("Task task-1 requires unknown task task-0");
+    }
+
+    @Test
+    void testReadGraph_notAJob() {
+        assertThatThrownBy(() -> read("[]"))
+                .isInstanceOf(JobProcessingException.class);
+    }
+
+    private TaskGraph read(String json) throws IOException {
+        return subject.readGraph(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,240 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.controller.JobStreamingController;
+import com.brasoveandan.jobprocessing.core.JobProcessorService;
+import com.brasoveandan.jobprocessing.core.JobStreamProcessor;
+import com.brasoveandan.jobprocessing.core.ResponseCompressor;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JobStreamingController.class)
+@Import({JobStreamProcessor.class, TasksSorter.class, ResponseCompressor.class})
+@TestPropertySource(properties = {"job-processing.compression.enabled=true", "job-processing.compression.min-size=100B"})
+class JobStreamingControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final String json = """
+            {
+              "tasks": [
+                {"name": "task-1", "command": "touch /tmp/file1"},
+                {"name": "task-2", "command": "cat /tmp/file1", "requires": ["task-3"]},
+                {"name": "task-3", "command": "echo 'Hello World!' > /tmp/file1", "requires": ["task-1"]},
+                {"name": "task-4", "command": "rm /tmp/file1", "requires": ["task-2", "task-3"]}
+              ]
+            }""";
+
+    @Test
+    void testStreamJob_Success() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(TASK_1_NAME)))
+                .andExpect(jsonPath("$[1].name", is(TASK_3_NAME)))
+                .andExpect(jsonPath("$[2].name", is(TASK_2_NAME)))
+                .andExpect(jsonPath("$[3].name", is(TASK_4_NAME)));
+    }
+
+    @Test
+    void testStreamJob_Ordering() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "ordering": "PRIORITY",
+                                  "tasks": [
+                                    {"name": "task-1", "command": "touch /tmp/file1"},
+                                    {"name": "task-2", "command": "cat /tmp/file1", "priority": 5}
+                                  ]
+                                }"""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(TASK_2_NAME)))
+                .andExpect(jsonPath("$[1].name", is(TASK_1_NAME)));
+    }
+
+    @Test
+    void testStreamJob_Targets() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"tasks\"", "\"targets\": [\"task-3\"], \"tasks\"")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].name", is(TASK_1_NAME)))
+                .andExpect(jsonPath("$[1].name", is(TASK_3_NAME)));
+    }
+
+    @Test
+    void testStreamJob_TargetsBashScript() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json.replace("\"tasks\"", "\"targets\": [\"task-2\"], \"tasks\"")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(is(JobProcessorService.BASH_SCRIPT_HEADER + """
+                        touch /tmp/file1
+                        echo 'Hello World!' > /tmp/file1
+                        cat /tmp/file1
+                        """)));
+    }
+
+    @Test
+    void testStreamJob_TargetsOfCyclicJob() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"tasks\"", "\"targets\": [\"task-1\"], \"tasks\"")
+                                .replace("\"command\": \"touch /tmp/file1\"", "\"command\": \"touch /tmp/file1\", \"requires\": [\"task-4\"]")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].type", is("CIRCULAR_DEPENDENCY")));
+    }
+
+    @Test
+    void testStreamJob_UnknownTarget() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"tasks\"", "\"targets\": [\"task-5\"], \"tasks\"")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Unknown target task task-5")))
+                .andExpect(jsonPath("$.errors[0].type", is("UNKNOWN_TARGET")));
+    }
+
+    @Test
+    void testStreamJob_UnknownRequirement() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"requires\": [\"task-1\"]", "\"requires\": [\"task-5\"]")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Task task-3 requires unknown task task-5")))
+                .andExpect(jsonPath("$.errors[0].type", is("MISSING_DEPENDENCY")));
+    }
+
+    @Test
+    void testStreamJob_Unparsable() throws Exception {
+        mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("{\"tasks\": [{\"name\": "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamJob_BashScript() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(is(JobProcessorService.BASH_SCRIPT_HEADER + """
+                        touch /tmp/file1
+                        echo 'Hello World!' > /tmp/file1
+                        cat /tmp/file1
+                        rm /tmp/file1
+                        """)));
+    }
+
+    @Test
+    void testStreamJob_GzippedBashScript() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8")
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final var response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(JobProcessorService.BASH_SCRIPT_HEADER + """
+                    touch /tmp/file1
+                    echo 'Hello World!' > /tmp/file1
+                    cat /tmp/file1
+                    rm /tmp/file1
+                    """, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testStreamJob_gzipNotAccepted() throws Exception {
+        final var result = mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+                        .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(startsWith(JobProcessorService.BASH_SCRIPT_HEADER)));
+    }
+
+    @Test
+    void testStreamJob_Exception() throws Exception {
+        final var json = """
+                {
+                  "tasks": [
+                    {"name": "task-1", "command": "touch /tmp/file1", "requires": ["task-3"]},
+                    {"name": "task-3", "command": "echo 'Hello World!' > /tmp/file1", "requires": ["task-1"]}
+                  ]
+                }""";
+
+        mockMvc.perform(post("/api/orderedTasks/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Circular dependency detected: task-1 -> task-3 -> task-1")))
+                .andExpect(jsonPath("$.errors[0].type", is("CIRCULAR_DEPENDENCY")))
+                .andExpect(jsonPath("$.errors[0].cycle[1]", is("task-3")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JobValidatorTest {
+
+    @Test
+    void testValidate_validJob() {
+        final var tasks = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME, TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))
+        );
+
+        assertThatCode(() -> JobValidator.validate(tasks)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testValidate_reportsEveryCycle() {
+        final var tasks = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_2_NAME)),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME, TASK_2_NAME)),
+                new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_4_NAME, TASK_1_NAME))
+        );
+
+        final var e = catchThrowableOfType(() -> JobValidator.validate(tasks), CircularDependencyException.class);
+
+        assertEquals("Circular dependency detected: task-4 -> task-4 (and 1 more errors)", e.getMessage());
+        assertEquals(List.of(
+                new JobValidationError(JobValidationError.Type.CIRCULAR_DEPENDENCY, "Circular dependency detected: task-4 -> task-4",
+                        List.of(TASK_4_NAME), List.of(TASK_4_NAME, TASK_4_NAME)),
+                new JobValidationError(JobValidationError.Type.CIRCULAR_DEPENDENCY, "Circular dependency detected: task-1 -> task-2 -> task-3 -> task-1",
+                        List.of(TASK_1_NAME, TASK_2_NAME, TASK_3_NAME), List.of(TASK_1_NAME, TASK_2_NAME, TASK_3_NAME, TASK_1_NAME))
+        ), e.getErrors());
+    }
+
+    @Test
+    void testValidate_duplicateAndMissingTasks() {
+        final var tasks = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of("task-5")),
+                new Task(TASK_1_NAME, TASK_3_COMMAND, null)
+        );
+
+        final var e = catchThrowableOfType(() -> JobValidator.validate(tasks), JobValidationException.class);
+
+        assertEquals("Duplicate task name: task-1 (and 1 more errors)", e.getMessage());
+        assertEquals(List.of(JobValidationError.Type.DUPLICATE_TASK, JobValidationError.Type.MISSING_DEPENDENCY),
+                e.getErrors().stream().map(JobValidationError::type).toList());
+        assertEquals(List.of(TASK_2_NAME, "task-5"), e.getErrors().get(1).tasks());
+    }
+
+    @Test
+    void testValidate_longChain() {
+        final int size = 1_000_000;
+        final var tasks = new ArrayList<Task>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task("task-" + i, "echo " + i, List.of("task-" + ((i + 1) % size))));
+        }
+
+        final var e = catchThrowableOfType(() -> JobValidator.validate(tasks), CircularDependencyException.class);
+
+        assertEquals(size + 1, e.getErrors().getFirst().cycle().size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.brasoveandan.jobprocessing;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.brasoveandan.jobprocessing.core.Job;
+import com.brasoveandan.jobprocessing.core.LoggingAspect;
+import com.brasoveandan.jobprocessing.core.PayloadLoggingProperties;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoggingAspectTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Job job = new Job(List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null)));
+    private Level level;
+
+    @BeforeEach
+    void setUp() {
+        level = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(level);
+    }
+
+    @Test
+    void testLogExecutionTime_sampleRateOne() throws Throwable {
+        final var subject = new LoggingAspect(new ObjectMapper(), new PayloadLoggingProperties(true, 1, 1_024));
+
+        assertEquals("ok", subject.logExecutionTime(joinPoint(job, "ok")));
+
+        assertThat(messages()).hasSize(2);
+        assertEquals("Entering method: String.processJob() with arguments = [{\"tasks\":[{\"name\":\"task-1\",\"command\":\"touch /tmp/file1\"}],\"ordering\":\"INPUT\",\"targets\":null}]",
+                messages().get(0));
+        assertThat(messages().get(1)).startsWith("Exiting method: String.processJob() with result = \"ok\" and execution time = ");
+    }
+
+    @Test
+    void testLogExecutionTime_sampleRateZero() throws Throwable {
+        final var subject = new LoggingAspect(new ObjectMapper(), new PayloadLoggingProperties(true, 0, 1_024));
+
+        subject.logExecutionTime(joinPoint(job, "ok"));
+
+        assertThat(appender.list).singleElement().satisfies(event -> {
+            assertEquals(Level.DEBUG, event.getLevel());
+            assertThat(event.getFormattedMessage()).startsWith("Exiting method: String.processJob() with execution time = ");
+        });
+    }
+
+    @Test
+    void testLogExecutionTime_truncatesPayloads() throws Throwable {
+        final var subject = new LoggingAspect(new ObjectMapper(), new PayloadLoggingProperties(true, 1, 20));
+
+        subject.logExecutionTime(joinPoint(job, "x".repeat(100)));
+
+        assertEquals("Entering method: String.processJob() with arguments = [{\"tasks\":[{\"name\":\"...(truncated)", messages().get(0));
+        assertThat(messages().get(1)).startsWith("Exiting method: String.processJob() with result = \"xxxxxxxxxxxxxxxxxxx...(truncated) and");
+    }
+
+    @Test
+    void testLogExecutionTime_unserializablePayload() throws Throwable {
+        final var subject = new LoggingAspect(new ObjectMapper(), new PayloadLoggingProperties(true, 1, 1_024));
+
+        subject.logExecutionTime(joinPoint(new Object(), null));
+
+        assertEquals("Entering method: String.processJob() with arguments = <unserializable Object[]>", messages().get(0));
+    }
+
+    @Test
+    void testLogExecutionTime_failure() throws Throwable {
+        final var subject = new LoggingAspect(new ObjectMapper(), new PayloadLoggingProperties(false, 1, 1_024));
+        final var joinPoint = joinPoint(job, null);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> subject.logExecutionTime(joinPoint)).hasMessage("boom");
+        assertThat(appender.list).singleElement().satisfies(event -> {
+            assertEquals(Level.ERROR, event.getLevel());
+            assertEquals("Exception in method: String.processJob()", event.getFormattedMessage());
+        });
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    private static ProceedingJoinPoint joinPoint(Object argument, Object result) throws Throwable {
+        final var signature = mock(Signature.class);
+        when(signature.getName()).thenReturn("processJob");
+        final var joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn("target");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{argument});
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+}
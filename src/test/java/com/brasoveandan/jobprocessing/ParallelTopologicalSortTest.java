@@ -0,0 +1,131 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTopologicalSortTest {
+
+    @Test
+    void testSort_deterministicWhateverTheParallelism() {
+        final var graph = TaskGraph.of(generateLayeredTasks(100_000, 20_000));
+
+        final int[] sequential = sortWith(1, graph);
+        final int[] parallel = sortWith(8, graph);
+
+        assertArrayEquals(sequential, parallel);
+        assertTopologicalOrder(graph, parallel);
+    }
+
+    @Test
+    void testLevels() {
+        final var graph = TaskGraph.of(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, null),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME, TASK_4_NAME)),
+                new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_2_NAME))
+        ));
+
+        final var levels = new ParallelTopologicalSort(null).levels(graph);
+
+        assertEquals(4, levels.count());
+        assertArrayEquals(new int[]{1, 3, 2, 0}, levels.order());
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, levels.starts());
+    }
+
+    @Test
+    void testLevels_sameWithoutPool() {
+        final var graph = TaskGraph.of(generateLayeredTasks(50_000, 10_000));
+        final var pool = new ForkJoinPool(4);
+        try {
+            final var parallel = new ParallelTopologicalSort(pool).levels(graph);
+            final var sequential = new ParallelTopologicalSort(null).levels(graph);
+
+            assertArrayEquals(parallel.order(), sequential.order());
+            assertArrayEquals(parallel.starts(), sequential.starts());
+            assertEquals(5, sequential.count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSort_narrowGraph() {
+        final var graph = TaskGraph.of(generateLayeredTasks(10_000, 1));
+
+        assertTopologicalOrder(graph, sortWith(4, graph));
+    }
+
+    @Test
+    void testSort_circularDependency() {
+        final var tasks = new ArrayList<>(generateLayeredTasks(10_000, 5_000));
+        tasks.add(new Task("cycle-1", TASK_1_COMMAND, List.of("cycle-2", "task-9999")));
+        tasks.add(new Task("cycle-2", TASK_2_COMMAND, List.of("cycle-1")));
+
+        assertThatThrownBy(() -> sortWith(4, TaskGraph.of(tasks)))
+                .isInstanceOf(CircularDependencyException.class)
+                .hasMessage("Circular dependency detected: cycle-1 -> cycle-2 -> cycle-1");
+    }
+
+    @Test
+    void testTasksSorter_parallelLevelsAboveThreshold() {
+        final var tasks = generateLayeredTasks(50_000, 10_000);
+        final var subject = new TasksSorter(new TasksSorterProperties(true, 10_000, 4));
+        try {
+            final var graph = TaskGraph.of(tasks);
+            assertArrayEquals(sortWith(1, graph), subject.sortLevels(graph).order());
+            // The input order does not depend on the size of the job or on the configuration.
+            assertArrayEquals(new TasksSorter().sortGraph(graph), subject.sortGraph(graph));
+            assertTopologicalOrder(graph, subject.sortGraph(graph));
+
+            final var small = List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null), new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME)));
+            assertEquals(small, subject.sortTasks(small));
+        } finally {
+            subject.shutdown();
+        }
+    }
+
+    private static int[] sortWith(int parallelism, TaskGraph graph) {
+        final var pool = new ForkJoinPool(parallelism);
+        try {
+            return new ParallelTopologicalSort(pool).sort(graph);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void assertTopologicalOrder(TaskGraph graph, int[] order) {
+        assertEquals(graph.size(), order.length);
+        final int[] position = new int[graph.size()];
+        for (int p = 0; p < order.length; p++) {
+            position[order[p]] = p;
+        }
+        for (int i = 0; i < graph.size(); i++) {
+            for (int k = graph.dependentsFrom(i); k < graph.dependentsTo(i); k++) {
+                assertTrue(position[i] < position[graph.dependent(k)]);
+            }
+        }
+    }
+
+    private static List<Task> generateLayeredTasks(int size, int width) {
+        final var random = new Random(size);
+        final var tasks = new ArrayList<Task>(size);
+        for (int i = 0; i < size; i++) {
+            final int layerStart = i / width * width;
+            final var requires = new ArrayList<String>(3);
+            for (int r = layerStart == 0 ? 0 : 1 + random.nextInt(3); r > 0; r--) {
+                requires.add("task-" + (layerStart - width + random.nextInt(width)));
+            }
+            tasks.add(new Task("task-" + i, "echo " + i, requires));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,65 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.CompressionProperties;
+import com.brasoveandan.jobprocessing.core.ResponseCompressor;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCompressorTest {
+    private final ResponseCompressor subject = new ResponseCompressor(new CompressionProperties(true, DataSize.ofBytes(100)));
+
+    @Test
+    void testShouldCompress_acceptEncoding() {
+        assertTrue(subject.shouldCompress("gzip", () -> 100));
+        assertTrue(subject.shouldCompress("br;q=1.0, gzip;q=0.5", () -> 100));
+        assertTrue(subject.shouldCompress("*", () -> 100));
+        assertTrue(subject.shouldCompress("GZip", () -> 100));
+        assertTrue(subject.shouldCompress("deflate, GZIP;Q=0.8", () -> 100));
+
+        assertFalse(subject.shouldCompress(null, () -> 100));
+        assertFalse(subject.shouldCompress("br, deflate", () -> 100));
+        assertFalse(subject.shouldCompress("gzip;q=0", () -> 100));
+        assertFalse(subject.shouldCompress("gzip;Q=0.000", () -> 100));
+        assertFalse(subject.shouldCompress("*;q=0", () -> 100));
+    }
+
+    @Test
+    void testShouldCompress_explicitGzipOverridesWildcard() {
+        assertTrue(subject.shouldCompress("*;q=0, gzip", () -> 100));
+        assertFalse(subject.shouldCompress("*, gzip;q=0", () -> 100));
+    }
+
+    @Test
+    void testShouldCompress_minSize() {
+        assertFalse(subject.shouldCompress("gzip", () -> 99));
+        assertTrue(subject.shouldCompress("gzip", () -> 100));
+        // The size is not computed when the client does not accept gzip.
+        assertFalse(subject.shouldCompress("br", () -> fail("size computed")));
+    }
+
+    @Test
+    void testShouldCompress_disabled() {
+        final var disabled = new ResponseCompressor(new CompressionProperties(false, DataSize.ofBytes(0)));
+
+        assertFalse(disabled.shouldCompress("gzip", () -> 1_000));
+    }
+
+    @Test
+    void testGzip() throws IOException {
+        final byte[] bytes = "echo hello\n".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+
+        final byte[] gzipped = subject.gzip(bytes);
+
+        assertTrue(gzipped.length < bytes.length);
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(bytes, gzip.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.JobValidationError;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.JobValidator;
+import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskFingerprints;
+import com.brasoveandan.jobprocessing.core.TasksSorter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskFingerprintsTest {
+    @TempDir
+    private Path directory;
+
+    private final TasksSorter tasksSorter = new TasksSorter();
+
+    @Test
+    void testOf_stableForUnchangedJob() throws IOException {
+        final Path input = Files.writeString(directory.resolve("input.txt"), "hello");
+
+        final String[] first = fingerprints(job(input, "echo a"), Map.of("STAGE", "test")::get);
+        final String[] second = fingerprints(job(input, "echo a"), Map.of("STAGE", "test")::get);
+
+        assertArrayEquals(first, second);
+        assertNotEquals(first[0], first[1]);
+    }
+
+    @Test
+    void testOf_commandChangesTaskAndDependents() throws IOException {
+        final Path input = Files.writeString(directory.resolve("input.txt"), "hello");
+
+        final String[] before = fingerprints(job(input, "echo a"), name -> null);
+        final String[] after = fingerprints(job(input, "echo b"), name -> null);
+
+        assertNotEquals(before[0], after[0]);
+        assertNotEquals(before[1], after[1]);
+        assertEquals(before[2], after[2]);
+    }
+
+    @Test
+    void testOf_inputContentChangesTaskAndDependents() throws IOException {
+        final Path input = Files.writeString(directory.resolve("input.txt"), "hello");
+        final String[] before = fingerprints(job(input, "echo a"), name -> null);
+
+        Files.writeString(input, "hello again");
+        final String[] after = fingerprints(job(input, "echo a"), name -> null);
+
+        assertEquals(before[0], after[0]);
+        assertNotEquals(before[1], after[1]);
+        assertEquals(before[2], after[2]);
+    }
+
+    @Test
+    void testOf_directoryInput() throws IOException {
+        final Path sources = Files.createDirectories(directory.resolve("src"));
+        Files.writeString(sources.resolve("a.txt"), "a");
+        final List<Task> tasks = List.of(new Task("build", "make", null, null, null, List.of(sources.toString()), null));
+        final String before = fingerprints(tasks, name -> null)[0];
+
+        Files.writeString(sources.resolve("b.txt"), "b");
+
+        assertNotEquals(before, fingerprints(tasks, name -> null)[0]);
+    }
+
+    @Test
+    void testOf_noFingerprintWithoutDeclarations() {
+        final List<Task> tasks = List.of(
+                new Task("stamp", "date > stamp", null),
+                new Task("read", "cat stamp", List.of("stamp"), null, null, null, List.of("HOME")));
+
+        final String[] fingerprints = fingerprints(tasks, name -> null);
+
+        assertNull(fingerprints[0]);
+        assertNotNull(fingerprints[1]);
+    }
+
+    @Test
+    void testOf_relativeInputResolvesAgainstRoot() throws IOException {
+        Files.writeString(directory.resolve("input.txt"), "hello");
+        final List<Task> tasks = List.of(new Task("read", "cat input.txt", null, null, null, List.of("input.txt"), null));
+        final String before = fingerprints(tasks, name -> null)[0];
+
+        Files.writeString(directory.resolve("input.txt"), "hello again");
+
+        assertNotEquals(before, fingerprints(tasks, name -> null)[0]);
+    }
+
+    @Test
+    void testOf_rejectsInputOutsideRoot() {
+        final List<Task> tasks = List.of(
+                new Task("root", "ls /", null, null, null, List.of("/"), null),
+                new Task("parent", "ls ..", null, null, null, List.of("../.."), null));
+
+        assertThatThrownBy(() -> fingerprints(tasks, name -> null))
+                .isInstanceOfSatisfying(JobValidationException.class, e -> assertEquals(
+                        List.of(JobValidationError.Type.INVALID_INPUT, JobValidationError.Type.INVALID_INPUT),
+                        e.getErrors().stream().map(JobValidationError::type).toList()));
+    }
+
+    @Test
+    void testOf_rejectsTooLargeInput() throws IOException {
+        final Path sources = Files.createDirectories(directory.resolve("src"));
+        for (int i = 0; i < 10; i++) {
+            Files.writeString(sources.resolve(i + ".txt"), "a");
+        }
+        final List<Task> tasks = List.of(new Task("build", "make", null, null, null, List.of("src"), null));
+
+        assertThatThrownBy(() -> fingerprints(tasks, name -> null))
+                .isInstanceOfSatisfying(JobValidationException.class, e -> assertEquals(
+                        List.of("build", "src"), e.getErrors().getFirst().tasks()));
+    }
+
+    @Test
+    void testOf_environmentValueChangesTask() throws IOException {
+        final Path input = Files.writeString(directory.resolve("input.txt"), "hello");
+
+        final String[] test = fingerprints(job(input, "echo a"), Map.of("STAGE", "test")::get);
+        final String[] prod = fingerprints(job(input, "echo a"), Map.of("STAGE", "prod")::get);
+        final String[] unset = fingerprints(job(input, "echo a"), name -> null);
+
+        assertEquals(test[0], prod[0]);
+        assertNotEquals(test[2], prod[2]);
+        assertNotEquals(test[2], unset[2]);
+    }
+
+    /**
+     * {@code compile} runs the command and reads {@code CC}, {@code test} reads the input and requires it,
+     * {@code deploy} reads {@code STAGE} and requires nothing.
+     */
+    private static List<Task> job(Path input, String command) {
+        return List.of(
+                new Task("compile", command, null, null, null, null, List.of("CC")),
+                new Task("test", "cat " + input, List.of("compile"), null, null, List.of(input.toString()), null),
+                new Task("deploy", "echo $STAGE", null, null, null, null, List.of("STAGE")));
+    }
+
+    private String[] fingerprints(List<Task> tasks, UnaryOperator<String> environment) {
+        final var graph = JobValidator.validate(tasks);
+        return new TaskFingerprints(directory, 10, environment).of(tasks, graph, tasksSorter.sortGraph(graph));
+    }
+}
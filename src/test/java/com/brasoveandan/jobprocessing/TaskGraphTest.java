@@ -0,0 +1,93 @@
+package com.brasoveandan.jobprocessing;
+
+import com.brasoveandan.jobprocessing.core.JobValidationError;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskGraphTest {
+    private static final int SIZE = 100_000;
+    private static final int REQUIRES = 8;
+
+    @Test
+    void testBuilder_internsNames() {
+        final var graph = new TaskGraph.Builder()
+                .addTask(TASK_2_NAME, TASK_2_COMMAND)
+                .addRequirement(TASK_2_NAME, TASK_1_NAME)
+                .addTask(TASK_1_NAME, TASK_1_COMMAND)
+                .build();
+
+        assertEquals(2, graph.size());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(0, graph.indexOf(TASK_2_NAME));
+        assertEquals(1, graph.indexOf(TASK_1_NAME));
+        assertEquals(-1, graph.indexOf("unknown"));
+        assertEquals(TASK_1_COMMAND, graph.command(1));
+        assertEquals(0, graph.dependent(graph.dependentsFrom(1)));
+    }
+
+    @Test
+    void testBuilder_reportsDuplicatesAndUnknownRequirements() {
+        final var builder = new TaskGraph.Builder()
+                .addTask(TASK_1_NAME, TASK_1_COMMAND)
+                .addTask(TASK_1_NAME, TASK_2_COMMAND)
+                .addTask(TASK_2_NAME, TASK_2_COMMAND)
+                .addRequirement(TASK_2_NAME, "unknown");
+
+        final var e = assertThrows(JobValidationException.class, builder::build);
+
+        assertEquals("Duplicate task name: task-1 (and 1 more errors)", e.getMessage());
+        assertEquals(List.of(JobValidationError.Type.DUPLICATE_TASK, JobValidationError.Type.MISSING_DEPENDENCY),
+                e.getErrors().stream().map(JobValidationError::type).toList());
+        assertEquals(List.of(TASK_2_NAME, "unknown"), e.getErrors().get(1).tasks());
+    }
+
+    @Test
+    void testBuilder_offHeapGraphMatchesHeapGraph() {
+        final var heapGraph = build(new TaskGraph.Builder(), 1_000);
+        final var offHeapGraph = build(new TaskGraph.Builder().offHeapThreshold(1), 1_000);
+
+        assertFalse(heapGraph.isOffHeap());
+        assertTrue(offHeapGraph.isOffHeap());
+        assertEquals(heapGraph.size(), offHeapGraph.size());
+        assertEquals(heapGraph.edgeCount(), offHeapGraph.edgeCount());
+        assertArrayEquals(heapGraph.inDegrees(), offHeapGraph.inDegrees());
+        for (int i = 0; i < heapGraph.size(); i++) {
+            assertEquals(heapGraph.name(i), offHeapGraph.name(i));
+            assertEquals(heapGraph.inDegree(i), offHeapGraph.inDegree(i));
+            assertEquals(heapGraph.dependentsFrom(i), offHeapGraph.dependentsFrom(i));
+            assertEquals(heapGraph.dependentsTo(i), offHeapGraph.dependentsTo(i));
+        }
+        for (int k = 0; k < heapGraph.edgeCount(); k++) {
+            assertEquals(heapGraph.dependent(k), offHeapGraph.dependent(k));
+        }
+    }
+
+    @Test
+    void testCsrBytes() {
+        final var heapGraph = build(new TaskGraph.Builder(), SIZE);
+        final var offHeapGraph = build(new TaskGraph.Builder().offHeapThreshold(1), SIZE);
+
+        // Offsets, in-degrees and dependents, the same wherever the arrays live; TaskGraphFootprintBenchmark measures the whole graph.
+        final long edges = (long) SIZE * REQUIRES - REQUIRES * (REQUIRES + 1) / 2;
+        final long expectedBytes = (2L * SIZE + 1 + edges) * Integer.BYTES;
+        assertEquals(edges, heapGraph.edgeCount());
+        assertEquals(expectedBytes, heapGraph.csrBytes());
+        assertEquals(expectedBytes, offHeapGraph.csrBytes());
+    }
+
+    private static TaskGraph build(TaskGraph.Builder builder, int size) {
+        for (int i = 0; i < size; i++) {
+            builder.addTask("task-" + i, "echo " + i);
+            for (int j = Math.max(0, i - REQUIRES); j < i; j++) {
+                builder.addRequirement("task-" + i, "task-" + j);
+            }
+        }
+        return builder.build();
+    }
+}
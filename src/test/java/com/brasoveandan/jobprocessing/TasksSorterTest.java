@@ -1,13 +1,20 @@
 package com.brasoveandan.jobprocessing;
 
+import com.brasoveandan.jobprocessing.core.JobValidationError;
+import com.brasoveandan.jobprocessing.core.JobValidationException;
+import com.brasoveandan.jobprocessing.core.OrderingPolicy;
 import com.brasoveandan.jobprocessing.core.Task;
+import com.brasoveandan.jobprocessing.core.TaskGraph;
 import com.brasoveandan.jobprocessing.core.TasksSorter;
 import org.junit.jupiter.api.Test;
 
-import java.util.List;
+import java.util.*;
 
 import static com.brasoveandan.jobprocessing.UnitTestsUtils.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class TasksSorterTest {
@@ -39,10 +46,129 @@ class TasksSorterTest {
 
         final var response = subject.sortTasks(request);
         assertEquals(4, response.size());
-        assertEquals(TASK_4_NAME, response.get(0).name());
-        assertEquals(TASK_1_NAME, response.get(1).name());
-        assertEquals(TASK_3_NAME, response.get(2).name());
-        assertEquals(TASK_2_NAME, response.get(3).name());
+        assertEquals(TASK_1_NAME, response.get(0).name());
+        assertEquals(TASK_3_NAME, response.get(1).name());
+        assertEquals(TASK_2_NAME, response.get(2).name());
+        assertEquals(TASK_4_NAME, response.get(3).name());
+    }
+
+    @Test
+    public void testSortTasks_nameOrdering() {
+        final var request = List.of(
+                new Task(TASK_4_NAME, TASK_4_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, null)
+        );
+
+        final var response = subject.sortTasks(request, OrderingPolicy.NAME);
+        assertEquals(List.of(TASK_1_NAME, TASK_3_NAME, TASK_2_NAME, TASK_4_NAME), names(response));
+    }
+
+    @Test
+    public void testSortTasks_priorityOrdering() {
+        final var request = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null, 1, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_1_NAME), 5, null),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, null, 3, null),
+                new Task(TASK_4_NAME, TASK_4_COMMAND, null)
+        );
+
+        final var response = subject.sortTasks(request, OrderingPolicy.PRIORITY);
+        assertEquals(List.of(TASK_3_NAME, TASK_1_NAME, TASK_2_NAME, TASK_4_NAME), names(response));
+    }
+
+    @Test
+    public void testSortTasks_longestDurationOrdering() {
+        final var request = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null, null, 10L),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, null, null, 5L),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME), null, 6L),
+                new Task(TASK_4_NAME, TASK_4_COMMAND, null, null, 10L)
+        );
+
+        final var response = subject.sortTasks(request, OrderingPolicy.LONGEST_DURATION);
+        assertEquals(List.of(TASK_1_NAME, TASK_4_NAME, TASK_2_NAME, TASK_3_NAME), names(response));
+    }
+
+    @Test
+    public void testSortTasks_criticalPathOrdering() {
+        final var request = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null, null, 10L),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, null, null, 5L),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME), null, 6L),
+                new Task(TASK_4_NAME, TASK_4_COMMAND, null, null, 10L)
+        );
+
+        // task-2 heads a chain of 11 and goes before the longer but independent task-1 and task-4.
+        final var response = subject.sortTasks(request, OrderingPolicy.CRITICAL_PATH);
+        assertEquals(List.of(TASK_2_NAME, TASK_1_NAME, TASK_4_NAME, TASK_3_NAME), names(response));
+    }
+
+    @Test
+    public void testSortTasks_everyOrderingRespectsDependencies() {
+        final var random = new Random(42);
+        final var request = new ArrayList<Task>();
+        for (int i = 0; i < 2_000; i++) {
+            final var requires = new ArrayList<String>();
+            for (int k = 0; i > 0 && k < 3; k++) {
+                requires.add("task-" + random.nextInt(i));
+            }
+            request.add(new Task("task-" + i, "echo " + i, requires.stream().distinct().toList(),
+                    random.nextInt(10), (long) random.nextInt(1_000)));
+        }
+        Collections.shuffle(request, random);
+
+        for (OrderingPolicy policy : OrderingPolicy.values()) {
+            final var response = subject.sortTasks(request, policy);
+            assertEquals(response, subject.sortTasks(request, policy));
+            final var position = new HashMap<String, Integer>();
+            for (int i = 0; i < response.size(); i++) {
+                position.put(response.get(i).name(), i);
+            }
+            assertEquals(request.size(), position.size());
+            for (Task task : request) {
+                task.requires().forEach(required -> assertThat(position.get(required)).isLessThan(position.get(task.name())));
+            }
+        }
+    }
+
+    @Test
+    public void testSortGraph_sameOrderAsSortIndices() {
+        final var random = new Random(7);
+        final var request = new ArrayList<Task>();
+        for (int i = 0; i < 500; i++) {
+            final var requires = new ArrayList<String>();
+            for (int k = 0; i > 0 && k < 2; k++) {
+                requires.add("task-" + random.nextInt(i));
+            }
+            request.add(new Task("task-" + i, "echo " + i, requires.stream().distinct().toList(),
+                    random.nextInt(10), (long) random.nextInt(1_000)));
+        }
+        Collections.shuffle(request, random);
+        final var graph = TaskGraph.of(request);
+        final int[] priorities = request.stream().mapToInt(Task::priority).toArray();
+        final long[] durations = request.stream().mapToLong(Task::estimatedDuration).toArray();
+        final var targets = List.of("task-250", "task-499");
+
+        for (OrderingPolicy policy : OrderingPolicy.values()) {
+            assertArrayEquals(subject.sortIndices(request, policy), subject.sortGraph(graph, policy, priorities, durations, null));
+            assertArrayEquals(subject.sortIndices(request, policy, targets), subject.sortGraph(graph, policy, priorities, durations, targets));
+        }
+        assertArrayEquals(subject.sortGraph(graph), subject.sortGraph(graph, OrderingPolicy.PRIORITY, null, null, List.of()));
+    }
+
+    @Test
+    public void testSortGraph_targetsOfCyclicGraph() {
+        final var graph = TaskGraph.of(List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME))
+        ));
+
+        assertThatThrownBy(() -> subject.sortGraph(graph, OrderingPolicy.INPUT, null, null, List.of(TASK_1_NAME)))
+                .isInstanceOf(JobValidationException.class)
+                .hasMessageStartingWith("Circular dependency detected");
     }
 
     @Test
@@ -53,6 +179,49 @@ class TasksSorterTest {
                 new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME))
         );
 
-        assertThatCode(() -> subject.sortTasks(request)).hasMessage("Circular dependency detected");
+        assertThatCode(() -> subject.sortTasks(request)).hasMessage("Circular dependency detected: task-1 -> task-3 -> task-1");
+    }
+
+    @Test
+    public void testSortTasks_targetsAndWhatTheyRequireOnly() {
+        final var request = List.of(
+                new Task(TASK_4_NAME, TASK_4_COMMAND, List.of(TASK_2_NAME)),
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_1_NAME)),
+                new Task("task-5", "echo 5", List.of(TASK_1_NAME))
+        );
+
+        assertEquals(List.of(TASK_1_NAME, TASK_3_NAME, TASK_2_NAME), names(subject.sortTasks(request, OrderingPolicy.INPUT, List.of(TASK_2_NAME))));
+        assertEquals(List.of(TASK_1_NAME, TASK_3_NAME, "task-5"), names(subject.sortTasks(request, OrderingPolicy.NAME, List.of("task-5", TASK_3_NAME))));
+        assertArrayEquals(new int[]{1, 3, 4}, subject.sortIndices(request, OrderingPolicy.INPUT, List.of("task-5", TASK_3_NAME)));
+        assertEquals(5, subject.sortTasks(request, OrderingPolicy.INPUT, List.of()).size());
+    }
+
+    @Test
+    public void testSortTasks_unknownTarget() {
+        final var request = List.of(new Task(TASK_1_NAME, TASK_1_COMMAND, null));
+
+        assertThatThrownBy(() -> subject.sortTasks(request, OrderingPolicy.INPUT, List.of(TASK_1_NAME, TASK_2_NAME)))
+                .isInstanceOf(JobValidationException.class)
+                .hasMessage("Unknown target task task-2")
+                .extracting(e -> ((JobValidationException) e).getErrors().getFirst().type())
+                .isEqualTo(JobValidationError.Type.UNKNOWN_TARGET);
+    }
+
+    @Test
+    public void testSortTasks_targetsOfInvalidJob() {
+        final var request = List.of(
+                new Task(TASK_1_NAME, TASK_1_COMMAND, null),
+                new Task(TASK_2_NAME, TASK_2_COMMAND, List.of(TASK_3_NAME)),
+                new Task(TASK_3_NAME, TASK_3_COMMAND, List.of(TASK_2_NAME))
+        );
+
+        assertThatThrownBy(() -> subject.sortTasks(request, OrderingPolicy.INPUT, List.of(TASK_1_NAME)))
+                .isInstanceOf(JobValidationException.class);
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        return tasks.stream().map(Task::name).toList();
     }
 }